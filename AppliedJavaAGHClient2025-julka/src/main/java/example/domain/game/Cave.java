@@ -11,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 @JsonSubTypes({
         @JsonSubTypes.Type(value = SimpleCave.class, name = "S"),
         @JsonSubTypes.Type(value = DrunkenCave.class, name = "DC"),
+        @JsonSubTypes.Type(value = ChunkedCave.class, name = "CC"),
 })
 public interface Cave {
     boolean rock(int row, int column);
@@ -0,0 +1,227 @@
+package example.domain.game;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cave for very large worlds. The map is split into 64x64 chunks which are generated lazily
+ * and deterministically from {@code seed} and the chunk coordinates, so only the area that is
+ * actually visited is kept in memory. At most {@code maxResidentChunks} chunks are resident;
+ * the least recently used one is dropped and regenerated on the next access.
+ * <p>
+ * Every chunk carves a random walk from its centre to the middle of each of its edges, so
+ * neighbouring chunks always meet and the whole world stays traversable.
+ * <p>
+ * Clients receive only the size and seed and generate chunks themselves as they need them, so even
+ * a world too large to enumerate is sent in a few bytes.
+ */
+public final class ChunkedCave implements Cave {
+    public static final int CHUNK_SIZE = 64;
+    private static final int DEFAULT_MAX_RESIDENT_CHUNKS = 4096;
+    private static final int ITERATIONS = 4;
+
+    public final int columns;
+    public final int rows;
+    public final long seed;
+
+    private final int maxResidentChunks;
+    private final Map<Long, long[]> chunks;
+    private volatile Resident last;
+
+    private record Resident(long key, long[] bits) {
+    }
+
+    private ChunkedCave() {
+        this.columns = 0;
+        this.rows = 0;
+        this.seed = 0;
+        this.maxResidentChunks = DEFAULT_MAX_RESIDENT_CHUNKS;
+        this.chunks = lru(DEFAULT_MAX_RESIDENT_CHUNKS);
+    }
+
+    public ChunkedCave(int rows, int columns) {
+        this(rows, columns, ThreadLocalRandom.current().nextLong());
+    }
+
+    public ChunkedCave(int rows, int columns, long seed) {
+        this(rows, columns, seed, DEFAULT_MAX_RESIDENT_CHUNKS);
+    }
+
+    public ChunkedCave(int rows, int columns, long seed, int maxResidentChunks) {
+        if (rows < 3 || columns < 3) {
+            throw new IllegalArgumentException("Cave must be at least 3x3, got " + rows + "x" + columns);
+        }
+        if (maxResidentChunks < 1) {
+            throw new IllegalArgumentException("maxResidentChunks must be positive");
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.seed = seed;
+        this.maxResidentChunks = maxResidentChunks;
+        this.chunks = lru(maxResidentChunks);
+    }
+
+    private static Map<Long, long[]> lru(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public boolean rock(int row, int column) {
+        if (row <= 0 || column <= 0 || row >= rows - 1 || column >= columns - 1) {
+            return true;
+        }
+        final var bits = chunk(row / CHUNK_SIZE, column / CHUNK_SIZE);
+        return (bits[row % CHUNK_SIZE] >>> (column % CHUNK_SIZE) & 1L) != 0;
+    }
+
+    public int rows() {
+        return this.rows;
+    }
+
+    public int columns() {
+        return this.columns;
+    }
+
+    /**
+     * Number of chunks currently held in memory.
+     */
+    public int residentChunks() {
+        synchronized (chunks) {
+            return chunks.size();
+        }
+    }
+
+    public int maxResidentChunks() {
+        return maxResidentChunks;
+    }
+
+    private long[] chunk(int chunkRow, int chunkColumn) {
+        final long key = ((long) chunkRow << 32) | (chunkColumn & 0xffffffffL);
+        final var cached = last;
+        if (cached != null && cached.key() == key) {
+            return cached.bits();
+        }
+
+        long[] bits;
+        synchronized (chunks) {
+            bits = chunks.get(key);
+        }
+        if (bits == null) {
+            // generated outside the lock; a concurrent duplicate is identical, so either copy wins
+            bits = generate(chunkRow, chunkColumn);
+            synchronized (chunks) {
+                final var raced = chunks.putIfAbsent(key, bits);
+                if (raced != null) {
+                    bits = raced;
+                }
+            }
+        }
+        last = new Resident(key, bits);
+        return bits;
+    }
+
+    /**
+     * Generates one chunk as 64 row words, bit {@code c} of word {@code r} set for rock.
+     */
+    private long[] generate(int chunkRow, int chunkColumn) {
+        final var rg = new SplittableRandom(mix(seed, chunkRow, chunkColumn));
+
+        var current = new long[CHUNK_SIZE];
+        for (int row = 0; row < CHUNK_SIZE; row++) {
+            long word = 0;
+            for (int column = 0; column < CHUNK_SIZE; column++) {
+                if (rg.nextFloat() > 0.65) {
+                    word |= 1L << column;
+                }
+            }
+            current[row] = word;
+        }
+
+        var next = new long[CHUNK_SIZE];
+        for (int i = 0; i < ITERATIONS; i++) {
+            iterate(current, next);
+            final var swap = current;
+            current = next;
+            next = swap;
+        }
+
+        final int centre = CHUNK_SIZE / 2;
+        walk(current, rg, centre, centre, centre, 0);
+        walk(current, rg, centre, centre, centre, CHUNK_SIZE - 1);
+        walk(current, rg, centre, centre, 0, centre);
+        walk(current, rg, centre, centre, CHUNK_SIZE - 1, centre);
+        return current;
+    }
+
+    /**
+     * One smoothing pass of the same rule {@link SimpleCave} uses; cells outside the chunk count as rock.
+     */
+    private static void iterate(long[] current, long[] next) {
+        for (int row = 0; row < CHUNK_SIZE; row++) {
+            final long above = row > 0 ? current[row - 1] : -1L;
+            final long middle = current[row];
+            final long below = row < CHUNK_SIZE - 1 ? current[row + 1] : -1L;
+            long word = 0;
+            for (int column = 0; column < CHUNK_SIZE; column++) {
+                int rocks = 0;
+                for (int dc = -1; dc <= 1; dc++) {
+                    final int c = column + dc;
+                    if (c < 0 || c >= CHUNK_SIZE) {
+                        rocks += 3;
+                        continue;
+                    }
+                    rocks += (int) (above >>> c & 1L) + (int) (below >>> c & 1L);
+                    if (dc != 0) {
+                        rocks += (int) (middle >>> c & 1L);
+                    }
+                }
+                final boolean rock = (middle >>> column & 1L) != 0;
+                if (rock ? rocks > 2 : rocks > 4) {
+                    word |= 1L << column;
+                }
+            }
+            next[row] = word;
+        }
+    }
+
+    /**
+     * Carves a biased random walk from ({@code row}, {@code column}) to the target cell.
+     */
+    private static void walk(long[] bits, SplittableRandom rg, int row, int column, int targetRow, int targetColumn) {
+        while (true) {
+            bits[row] &= ~(1L << column);
+            if (row == targetRow && column == targetColumn) {
+                return;
+            }
+            if (rg.nextInt(3) > 0) {
+                final int rowDiff = targetRow - row;
+                final int columnDiff = targetColumn - column;
+                if (Math.abs(rowDiff) >= Math.abs(columnDiff)) {
+                    row += Integer.signum(rowDiff);
+                } else {
+                    column += Integer.signum(columnDiff);
+                }
+            } else {
+                switch (rg.nextInt(4)) {
+                    case 0 -> row = Math.max(0, row - 1);
+                    case 1 -> row = Math.min(CHUNK_SIZE - 1, row + 1);
+                    case 2 -> column = Math.max(0, column - 1);
+                    default -> column = Math.min(CHUNK_SIZE - 1, column + 1);
+                }
+            }
+        }
+    }
+
+    private static long mix(long seed, int chunkRow, int chunkColumn) {
+        long z = seed + 0x9E3779B97F4A7C15L * (((long) chunkRow << 32) ^ (chunkColumn & 0xffffffffL) ^ 0x632BE59BD9B4E019L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,55 @@
+package example.strategy;
+
+import example.domain.game.Cave;
+import example.domain.game.Direction;
+
+/**
+ * Passable directions of every cell, bit {@code d} set when the neighbour in {@code Direction.values()[d]}
+ * is inside the cave and open. Built once per cave so move checks are a single array read.
+ */
+final class MoveMask {
+    private final Cave cave;
+    private final int rows;
+    private final int columns;
+    private final byte[] masks;
+
+    private MoveMask(Cave cave) {
+        this.cave = cave;
+        this.rows = cave.rows();
+        this.columns = cave.columns();
+        this.masks = new byte[rows * columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int mask = 0;
+                if (row > 0 && !cave.rock(row - 1, column)) {
+                    mask |= 1 << Direction.Up.ordinal();
+                }
+                if (row < rows - 1 && !cave.rock(row + 1, column)) {
+                    mask |= 1 << Direction.Down.ordinal();
+                }
+                if (column > 0 && !cave.rock(row, column - 1)) {
+                    mask |= 1 << Direction.Left.ordinal();
+                }
+                if (column < columns - 1 && !cave.rock(row, column + 1)) {
+                    mask |= 1 << Direction.Right.ordinal();
+                }
+                masks[row * columns + column] = (byte) mask;
+            }
+        }
+    }
+
+    /**
+     * Returns {@code current} if it was built for this cave instance, otherwise a fresh mask.
+     */
+    static MoveMask of(Cave cave, MoveMask current) {
+        return current != null && current.cave == cave ? current : new MoveMask(cave);
+    }
+
+    boolean inside(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    boolean canMove(int row, int column, Direction direction) {
+        return (masks[row * columns + column] >>> direction.ordinal() & 1) != 0;
+    }
+}
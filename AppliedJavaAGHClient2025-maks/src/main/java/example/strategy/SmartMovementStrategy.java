@@ -13,6 +13,7 @@ public class SmartMovementStrategy implements MovementStrategy {
     private Location lastLocation = null;
     private Direction lastDirection = null;
     private int stuckCounter = 0;
+    private MoveMask moveMask = null;
     private static final int STUCK_THRESHOLD = 3;
     
     @Override
@@ -200,6 +201,11 @@ public class SmartMovementStrategy implements MovementStrategy {
             return false;
         }
         
+        moveMask = MoveMask.of(cave, moveMask);
+        if (moveMask.inside(location.row(), location.column())) {
+            return moveMask.canMove(location.row(), location.column(), direction);
+        }
+        
         Location newLocation = getNewLocation(location, direction);
         
         // Check bounds
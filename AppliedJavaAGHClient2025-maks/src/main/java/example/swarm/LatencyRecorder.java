@@ -0,0 +1,67 @@
+package example.swarm;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Log-linear histogram of nanosecond latencies, eight buckets per power of two, so percentiles are
+ * within 12.5% over any range. Thousands of connection threads record into it without locking.
+ */
+final class LatencyRecorder {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long nanos) {
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(index(value));
+        max.accumulate(value);
+    }
+
+    long count() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    /**
+     * Upper bound of the bucket holding the value at the quantile, capped at the largest value seen.
+     */
+    long valueAt(double quantile) {
+        final long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(max.get(), lowerBound(i + 1) - 1);
+            }
+        }
+        return max.get();
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    private static long lowerBound(int index) {
+        final int block = index / SUB_BUCKETS;
+        final int sub = index % SUB_BUCKETS;
+        return block == 0 ? sub : (long) (SUB_BUCKETS + sub) << (block - 1);
+    }
+}
@@ -0,0 +1,200 @@
+package example.swarm;
+
+import example.domain.game.Direction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator: thousands of synthetic players on one machine, each on a virtual thread with a
+ * blocking socket. Every player authorizes with a key from {@link SwarmConfig}, answers each state
+ * line with a random command and records how long after its tick started the line arrived.
+ * <pre>
+ * java -cp ... example.swarm.Swarm generate --clients 2000 --out swarm.json
+ * java -Dconfig=swarm.json -Dcave.rows=200 -Dcave.columns=200 -cp ... example.Main     (the server)
+ * java -cp ... example.swarm.Swarm --clients 2000 --duration 60
+ * </pre>
+ * Lines are only classified by their type tag, not parsed, so the swarm spends its CPU on sockets
+ * rather than on JSON and disturbs a server on the same host as little as possible.
+ */
+public final class Swarm {
+    private static final Logger logger = LoggerFactory.getLogger(Swarm.class);
+    private static final String TYPE_PREFIX = "{\"type\":\"";
+    private static final int READ_TIMEOUT_MILLIS = 1000;
+
+    private final String host;
+    private final int port;
+    private final int clients;
+    private final long durationNanos;
+    private final long rampNanos;
+    private final TickClock clock;
+    private final LatencyRecorder latency = new LatencyRecorder();
+    private final LongAdder connected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder unauthorized = new LongAdder();
+    private final LongAdder states = new LongAdder();
+    private final LongAdder missedTicks = new LongAdder();
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final byte[][] commandLines;
+
+    Swarm(String host, int port, int clients, long durationNanos, long rampNanos, long tickGapNanos) {
+        if (clients < 1) {
+            throw new IllegalArgumentException("Swarm needs at least one client");
+        }
+        this.host = host;
+        this.port = port;
+        this.clients = clients;
+        this.durationNanos = durationNanos;
+        this.rampNanos = rampNanos;
+        this.clock = new TickClock(tickGapNanos);
+        final var directions = Direction.values();
+        this.commandLines = new byte[directions.length][];
+        for (int i = 0; i < directions.length; i++) {
+            commandLines[i] = ("{\"type\":\"C\",\"direction\":\"" + directions[i].name() + "\"}\n").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        final boolean generate = args.length > 0 && args[0].equals("generate");
+        final var options = options(args, generate ? 1 : 0);
+        final int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        if (generate) {
+            final var path = Path.of(options.getOrDefault("out", "swarm.json"));
+            SwarmConfig.write(path, clients);
+            logger.info("Wrote a server configuration for {} swarm players to {}", clients, path);
+            return;
+        }
+        final var swarm = new Swarm(
+                options.getOrDefault("host", "localhost"),
+                Integer.parseInt(options.getOrDefault("port", "8080")),
+                clients,
+                TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("duration", "60"))),
+                TimeUnit.MILLISECONDS.toNanos(Long.parseLong(options.getOrDefault("ramp-ms", "5000"))),
+                TimeUnit.MILLISECONDS.toNanos(Long.parseLong(options.getOrDefault("tick-gap-ms", "500"))));
+        System.out.println(swarm.run());
+    }
+
+    private static Map<String, String> options(String[] args, int from) {
+        final var options = new HashMap<String, String>();
+        for (int i = from; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * Connects the swarm, plays until the duration is over and returns the report.
+     */
+    String run() throws InterruptedException {
+        final long start = System.nanoTime();
+        final long deadline = start + rampNanos + durationNanos;
+        try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                final int index = i;
+                executor.submit(() -> play(index, deadline));
+                // spreads the connects over the ramp instead of hitting accept() all at once
+                if (rampNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(rampNanos / clients);
+                }
+            }
+        }
+        return report(System.nanoTime() - start);
+    }
+
+    private void play(int index, long deadline) {
+        final var random = new SplittableRandom(index);
+        try (final var socket = new Socket(host, port)) {
+            socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            final var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            final OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            out.write(("{\"type\":\"A\",\"key\":\"" + SwarmConfig.key(index) + "\"}\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            long lastTick = -1;
+            while (System.nanoTime() - deadline < 0) {
+                final String line;
+                try {
+                    line = reader.readLine();
+                } catch (SocketTimeoutException e) {
+                    continue;
+                }
+                if (line == null) {
+                    break;
+                }
+                final long now = System.nanoTime();
+                bytesIn.add(line.length() + 1);
+                switch (type(line)) {
+                    case 'A' -> connected.increment();
+                    case 'U' -> {
+                        unauthorized.increment();
+                        return;
+                    }
+                    case 'L' -> {
+                        final var tick = clock.observe(now);
+                        latency.record(now - tick.startNanos());
+                        states.increment();
+                        if (lastTick >= 0 && tick.id() > lastTick + 1) {
+                            missedTicks.add(tick.id() - lastTick - 1);
+                        }
+                        lastTick = tick.id();
+                        out.write(commandLines[random.nextInt(commandLines.length)]);
+                        out.flush();
+                        commands.increment();
+                    }
+                    default -> {
+                        // the cave, sent once
+                    }
+                }
+            }
+        } catch (IOException e) {
+            failed.increment();
+            logger.debug("Swarm client {} failed: {}", index, e.getMessage());
+        }
+    }
+
+    private static char type(String line) {
+        return line.startsWith(TYPE_PREFIX) && line.length() > TYPE_PREFIX.length() ? line.charAt(TYPE_PREFIX.length()) : '?';
+    }
+
+    private String report(long elapsedNanos) {
+        final double seconds = elapsedNanos / 1e9;
+        final long received = states.sum();
+        final long missed = missedTicks.sum();
+        return """
+                Swarm of %d clients against %s:%d for %.1f s
+                  connections: %d authorized, %d unauthorized, %d failed
+                  ticks observed: %d, state lines: %d (%.1f/s), commands sent: %d, received %.2f MB/s
+                  missed ticks: %d (%.2f%% of expected deliveries)
+                  tick-to-state latency (ms): p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f
+                """.formatted(
+                clients, host, port, seconds,
+                connected.sum(), unauthorized.sum(), failed.sum(),
+                clock.ticks(), received, received / seconds, commands.sum(), bytesIn.sum() / seconds / 1e6,
+                missed, received + missed == 0 ? 0.0 : 100.0 * missed / (received + missed),
+                millis(latency.valueAt(0.5)), millis(latency.valueAt(0.9)), millis(latency.valueAt(0.99)),
+                millis(latency.valueAt(0.999)), millis(latency.max()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,43 @@
+package example.swarm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Players of a swarm run. The same index always gives the same name and key, so the server
+ * configuration written here and the connections of a later run agree without sharing a file.
+ */
+final class SwarmConfig {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SwarmConfig() {
+    }
+
+    static String name(int index) {
+        return "Swarm%05d".formatted(index);
+    }
+
+    static String key(int index) {
+        return "swarm-key-%05d".formatted(index);
+    }
+
+    /**
+     * Writes a server configuration, in the server's {@code Config} format, knowing the swarm's players.
+     */
+    static void write(Path path, int clients) throws IOException {
+        final List<Map<String, Object>> known = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            final var entry = new LinkedHashMap<String, Object>();
+            entry.put("authorize", Map.of("type", "A", "key", key(i)));
+            entry.put("player", Map.of("type", "P", "name", name(i)));
+            known.add(entry);
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), Map.of("known", known));
+    }
+}
@@ -0,0 +1,40 @@
+package example.swarm;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reconstructs the server's ticks from when state lines arrive, since the protocol carries no tick
+ * number: the first line after a quiet gap opens a new tick, and every line is attributed to the
+ * latest tick. The delay of a line after its tick's first line is the fan-out latency of that tick.
+ */
+final class TickClock {
+    record Tick(long id, long startNanos) {
+    }
+
+    private final long gapNanos;
+    private final AtomicReference<Tick> current = new AtomicReference<>(new Tick(-1, Long.MIN_VALUE / 2));
+
+    /**
+     * @param gapNanos shortest silence between two ticks; well under the tick period, well over the fan-out
+     */
+    TickClock(long gapNanos) {
+        this.gapNanos = gapNanos;
+    }
+
+    Tick observe(long nowNanos) {
+        while (true) {
+            final var tick = current.get();
+            if (nowNanos - tick.startNanos() < gapNanos) {
+                return tick;
+            }
+            final var next = new Tick(tick.id() + 1, nowNanos);
+            if (current.compareAndSet(tick, next)) {
+                return next;
+            }
+        }
+    }
+
+    long ticks() {
+        return current.get().id() + 1;
+    }
+}
@@ -1,21 +1,34 @@
 package example;
 
+import example.cave.CaveLibrary;
+import example.cave.CaveSpec;
 import example.domain.game.Cave;
-import example.domain.game.DrunkenCave;
-import example.domain.game.SimpleCave;
 import example.game.Game;
+import example.game.MatchRandom;
 import example.server.Server;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.Path;
 
 public class Main {
+    private static final Logger logger = LoggerFactory.getLogger(Main.class);
+
     public static void main(String[] args) throws IOException {
-//        final var cave = new SimpleCave(60, 160);
-        final var cave = new DrunkenCave(15, 50);
-        final var game = new Game(cave);
+//        final var spec = new CaveSpec(CaveSpec.Type.SIMPLE, 60, 160);
+        final var spec = new CaveSpec(CaveSpec.Type.valueOf(System.getProperty("cave.type", "DRUNKEN")), Integer.getInteger("cave.rows", 15), Integer.getInteger("cave.columns", 50));
+        // -Dmatch.seed=... replays a match, the seed of every match is logged
+        final var seed = Long.getLong("match.seed");
+        final var random = seed == null ? MatchRandom.unseeded() : new MatchRandom(seed);
+        final Cave cave = args.length > 0
+                // cave file generated offline with CaveLibrary, mapped instead of generated
+                ? CaveLibrary.open(Path.of(args[0]))
+                : spec.generate(random.cave());
+        logger.info("Match seed {}", random.seed());
+        final var game = new Game(cave, random);
         //final var server = new Server(game, "{\"known\":[{\"authorize\":{\"type\":\"A\",\"key\":\"1234\"},\"player\":{\"type\":\"P\",\"name\":\"Player0\"}}]}");
-        final var server = new Server(game, Path.of("config/configuration.json"));
-        server.start(8080, 8081);
+        final var server = new Server(game, Path.of(System.getProperty("config", "config/configuration.json")));
+        server.start(8080, 8081, Integer.getInteger("websocket.port", 8082));
     }
 }
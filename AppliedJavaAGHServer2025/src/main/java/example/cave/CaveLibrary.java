@@ -0,0 +1,226 @@
+package example.cave;
+
+import example.domain.game.Cave;
+import example.domain.game.MappedCave;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary cave files for caves generated offline and memory-mapped by the server.
+ * <p>
+ * Layout, little-endian:
+ * <pre>
+ * header (32 bytes): magic "MZCV", version, rows, columns, flags, distance source cell, median distance,
+ *                    4 reserved bytes
+ * bitset:            ceil(rows * columns / 64) longs, bit {@code row * columns + column} set for rock
+ * distances:         rows * columns ints, only with {@link #FLAG_DISTANCES}
+ * </pre>
+ * Generate a file with {@code java -cp ... example.cave.CaveLibrary SIMPLE|DRUNKEN rows columns file [distances]}.
+ */
+public final class CaveLibrary {
+    public static final int MAGIC = 0x5643_5A4D; // "MZCV" read as little-endian int
+    public static final int VERSION = 2;
+    public static final int FLAG_DISTANCES = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int CHUNK_BYTES = 1 << 20;
+
+    private CaveLibrary() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: CaveLibrary SIMPLE|DRUNKEN rows columns file [distances]");
+            System.exit(1);
+        }
+        final var spec = new CaveSpec(CaveSpec.Type.valueOf(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        final var cave = spec.generate();
+        write(cave, Path.of(args[3]), args.length > 4 && args[4].equals("distances"));
+        System.out.println("Cave " + spec + " written to " + args[3]);
+    }
+
+    /**
+     * Writes the cave, optionally with BFS distances measured from the open cell closest to its centre
+     * and their median, so the server needs no pass over the distances to pick a fair start.
+     */
+    public static void write(Cave cave, Path path, boolean withDistances) throws IOException {
+        final int rows = cave.rows();
+        final int columns = cave.columns();
+        final long cells = (long) rows * columns;
+        final int source = withDistances ? centreCell(cave) : -1;
+        if (withDistances && cells > Integer.MAX_VALUE / 4) {
+            throw new IllegalArgumentException("Cave too large for distance data: " + rows + "x" + columns);
+        }
+        final int[] distances = withDistances ? distances(cave, source) : null;
+
+        try (final var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            final var header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(columns)
+                    .putInt(withDistances ? FLAG_DISTANCES : 0).putInt(source).putInt(distances == null ? -1 : median(distances)).putInt(0).flip();
+            writeFully(channel, header);
+
+            final var buffer = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (long word = 0; word < words(cells); word++) {
+                long bits = 0;
+                final long end = Math.min(cells, (word + 1) * 64);
+                for (long cell = word * 64; cell < end; cell++) {
+                    if (cave.rock((int) (cell / columns), (int) (cell % columns))) {
+                        bits |= 1L << cell;
+                    }
+                }
+                if (!buffer.hasRemaining()) {
+                    writeFully(channel, buffer.flip());
+                    buffer.clear();
+                }
+                buffer.putLong(bits);
+            }
+
+            if (distances != null) {
+                for (final int distance : distances) {
+                    if (!buffer.hasRemaining()) {
+                        writeFully(channel, buffer.flip());
+                        buffer.clear();
+                    }
+                    buffer.putInt(distance);
+                }
+            }
+            writeFully(channel, buffer.flip());
+        }
+    }
+
+    /**
+     * Maps the file read-only and returns a cave backed directly by the mapping.
+     */
+    public static MappedCave open(Path path) throws IOException {
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a cave file: " + path);
+            }
+            final int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported cave file version " + version + ": " + path);
+            }
+            final int rows = header.getInt();
+            final int columns = header.getInt();
+            final int flags = header.getInt();
+            final int source = header.getInt();
+            final int median = header.getInt();
+
+            final long cells = (long) rows * columns;
+            final long bitsetBytes = words(cells) * 8;
+            final long distanceBytes = (flags & FLAG_DISTANCES) != 0 ? cells * 4 : 0;
+            if (channel.size() < HEADER_BYTES + bitsetBytes + distanceBytes) {
+                throw new IOException("Truncated cave file: " + path);
+            }
+
+            final var bits = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, bitsetBytes)
+                    .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            IntBuffer distances = null;
+            if (distanceBytes > 0) {
+                distances = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + bitsetBytes, distanceBytes)
+                        .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            }
+            // the mappings stay valid after the channel is closed
+            return new MappedCave(rows, columns, bits, distances, source, median);
+        }
+    }
+
+    private static long words(long cells) {
+        return (cells + 63) / 64;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static int centreCell(Cave cave) {
+        final int columns = cave.columns();
+        int best = -1;
+        long bestDistance = Long.MAX_VALUE;
+        for (int row = 0; row < cave.rows(); row++) {
+            for (int column = 0; column < columns; column++) {
+                if (cave.rock(row, column)) {
+                    continue;
+                }
+                final long dr = row - cave.rows() / 2;
+                final long dc = column - columns / 2;
+                if (dr * dr + dc * dc < bestDistance) {
+                    bestDistance = dr * dr + dc * dc;
+                    best = row * columns + column;
+                }
+            }
+        }
+        if (best < 0) {
+            throw new IllegalArgumentException("Cave has no open cell to measure distances from");
+        }
+        return best;
+    }
+
+    private static int median(int[] distances) {
+        var counts = new int[64];
+        long reachable = 0;
+        for (final int distance : distances) {
+            if (distance < 0) {
+                continue;
+            }
+            if (distance >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(distance + 1, counts.length * 2));
+            }
+            counts[distance]++;
+            reachable++;
+        }
+        long remaining = reachable / 2;
+        for (int distance = 0; distance < counts.length; distance++) {
+            remaining -= counts[distance];
+            if (remaining < 0) {
+                return distance;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] distances(Cave cave, int source) {
+        final int rows = cave.rows();
+        final int columns = cave.columns();
+        final var distances = new int[rows * columns];
+        Arrays.fill(distances, -1);
+        final var queue = new int[rows * columns];
+        int head = 0;
+        int tail = 0;
+        distances[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            final int cell = queue[head++];
+            final int row = cell / columns;
+            final int column = cell - row * columns;
+            final int next = distances[cell] + 1;
+            if (row > 0 && distances[cell - columns] < 0 && !cave.rock(row - 1, column)) {
+                distances[cell - columns] = next;
+                queue[tail++] = cell - columns;
+            }
+            if (row < rows - 1 && distances[cell + columns] < 0 && !cave.rock(row + 1, column)) {
+                distances[cell + columns] = next;
+                queue[tail++] = cell + columns;
+            }
+            if (column > 0 && distances[cell - 1] < 0 && !cave.rock(row, column - 1)) {
+                distances[cell - 1] = next;
+                queue[tail++] = cell - 1;
+            }
+            if (column < columns - 1 && distances[cell + 1] < 0 && !cave.rock(row, column + 1)) {
+                distances[cell + 1] = next;
+                queue[tail++] = cell + 1;
+            }
+        }
+        return distances;
+    }
+}
@@ -0,0 +1,45 @@
+package example.cave;
+
+import example.domain.game.Cave;
+import example.domain.game.ChunkedCave;
+import example.domain.game.DrunkenCave;
+import example.domain.game.SimpleCave;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Kind and size of a cave to generate.
+ */
+public record CaveSpec(Type type, int rows, int columns) {
+    public enum Type {
+        SIMPLE,
+        DRUNKEN,
+        /** Generated chunk by chunk on demand, for worlds too large to hold, see {@link ChunkedCave}. */
+        CHUNKED
+    }
+
+    public CaveSpec {
+        if (type == null) {
+            throw new IllegalArgumentException("Cave type cannot be null");
+        }
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException("Cave size must be positive, got " + rows + "x" + columns);
+        }
+    }
+
+    public Cave generate() {
+        return generate(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Cave carved with the given generator, the same cave for the same sequence of draws.
+     */
+    public Cave generate(RandomGenerator rg) {
+        return switch (type) {
+            case SIMPLE -> new SimpleCave(rows, columns, rg, SimpleCave.Generation.PACKED);
+            case DRUNKEN -> new DrunkenCave(rows, columns, rg, DrunkenCave.Generation.MULTI_WALKER);
+            case CHUNKED -> new ChunkedCave(rows, columns, rg.nextLong());
+        };
+    }
+}
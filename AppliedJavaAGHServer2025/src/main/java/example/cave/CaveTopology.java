@@ -0,0 +1,246 @@
+package example.cave;
+
+import example.domain.game.Cave;
+import example.domain.game.Direction;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Data that depends only on the cave: which cells are open, which connected component each
+ * open cell belongs to and in which directions a cell can be left. Cells are addressed by
+ * {@code row * columns + column}. Open cells are stored grouped by component, so a uniformly
+ * random cell of one component is a single array read.
+ * <p>
+ * Topologies are cached per cave instance, see {@link #of(Cave)}.
+ */
+public final class CaveTopology {
+    public static final int ROCK = -1;
+    /** Largest cave, in cells, a topology is built for; bigger caves fall back to direct {@link Cave#rock} checks. */
+    public static final int MAX_CELLS = 1 << 24;
+
+    private static final Map<Cave, CaveTopology> cache = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final int rows;
+    private final int columns;
+    private final int[] labels;
+    private final int[] componentStarts;
+    private final int[] openCells;
+    private final byte[] moves;
+
+    private CaveTopology(int rows, int columns, int[] labels, int[] componentStarts, int[] openCells, byte[] moves) {
+        this.rows = rows;
+        this.columns = columns;
+        this.labels = labels;
+        this.componentStarts = componentStarts;
+        this.openCells = openCells;
+        this.moves = moves;
+    }
+
+    public static boolean supports(Cave cave) {
+        return (long) cave.rows() * cave.columns() <= MAX_CELLS;
+    }
+
+    /**
+     * Topology of the cave, computed on first use and cached for as long as the cave is reachable.
+     */
+    public static CaveTopology of(Cave cave) {
+        final var cached = cache.get(cave);
+        if (cached != null) {
+            return cached;
+        }
+        final var topology = compute(cave);
+        cache.put(cave, topology);
+        return topology;
+    }
+
+    /**
+     * Labels components in one raster scan, merging the labels of the upper and left neighbour
+     * with union-find, then renumbers them densely in scan order.
+     */
+    public static CaveTopology compute(Cave cave) {
+        final int rows = cave.rows();
+        final int columns = cave.columns();
+        if (!supports(cave)) {
+            throw new IllegalArgumentException("Cave too large for a topology: " + rows + "x" + columns);
+        }
+
+        final var labels = new int[rows * columns];
+        var parent = new int[64];
+        int provisional = 0;
+        int open = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                final int cell = row * columns + column;
+                if (cave.rock(row, column)) {
+                    labels[cell] = ROCK;
+                    continue;
+                }
+                open++;
+                final int up = row > 0 ? labels[cell - columns] : ROCK;
+                final int left = column > 0 ? labels[cell - 1] : ROCK;
+                if (up == ROCK && left == ROCK) {
+                    if (provisional == parent.length) {
+                        parent = Arrays.copyOf(parent, provisional * 2);
+                    }
+                    parent[provisional] = provisional;
+                    labels[cell] = provisional++;
+                } else if (up == ROCK || left == ROCK) {
+                    labels[cell] = up == ROCK ? left : up;
+                } else {
+                    final int a = find(parent, up);
+                    final int b = find(parent, left);
+                    parent[Math.max(a, b)] = Math.min(a, b);
+                    labels[cell] = Math.min(a, b);
+                }
+            }
+        }
+
+        // dense component ids in order of first appearance, then counting sort of open cells by component
+        final var dense = new int[provisional];
+        int components = 0;
+        for (int label = 0; label < provisional; label++) {
+            final int root = find(parent, label);
+            dense[label] = root == label ? components++ : dense[root];
+        }
+        final var componentStarts = new int[components + 1];
+        for (int cell = 0; cell < labels.length; cell++) {
+            if (labels[cell] != ROCK) {
+                labels[cell] = dense[labels[cell]];
+                componentStarts[labels[cell] + 1]++;
+            }
+        }
+        for (int component = 0; component < components; component++) {
+            componentStarts[component + 1] += componentStarts[component];
+        }
+        final var cursor = Arrays.copyOf(componentStarts, components);
+        final var openCells = new int[open];
+        for (int cell = 0; cell < labels.length; cell++) {
+            if (labels[cell] != ROCK) {
+                openCells[cursor[labels[cell]]++] = cell;
+            }
+        }
+
+        // bit d of a cell's mask: the neighbour in Direction.values()[d] is inside the cave and open
+        final var moves = new byte[labels.length];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                final int cell = row * columns + column;
+                int mask = 0;
+                if (row > 0 && labels[cell - columns] != ROCK) {
+                    mask |= 1 << Direction.Up.ordinal();
+                }
+                if (row < rows - 1 && labels[cell + columns] != ROCK) {
+                    mask |= 1 << Direction.Down.ordinal();
+                }
+                if (column > 0 && labels[cell - 1] != ROCK) {
+                    mask |= 1 << Direction.Left.ordinal();
+                }
+                if (column < columns - 1 && labels[cell + 1] != ROCK) {
+                    mask |= 1 << Direction.Right.ordinal();
+                }
+                moves[cell] = (byte) mask;
+            }
+        }
+
+        return new CaveTopology(rows, columns, labels, componentStarts, openCells, moves);
+    }
+
+    private static int find(int[] parent, int label) {
+        while (parent[label] != label) {
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Component of the cell, or {@link #ROCK}.
+     */
+    public int component(int row, int column) {
+        return labels[row * columns + column];
+    }
+
+    /**
+     * Directions that lead from the cell onto an open cell inside the cave, bit {@code d} for {@code Direction.values()[d]}.
+     */
+    public int moves(int cell) {
+        return moves[cell];
+    }
+
+    public boolean canMove(int cell, Direction direction) {
+        return (moves[cell] >>> direction.ordinal() & 1) != 0;
+    }
+
+    public boolean inside(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    public int cell(int row, int column) {
+        return row * columns + column;
+    }
+
+    public int component(int cell) {
+        return labels[cell];
+    }
+
+    /**
+     * Whether both cells are open and connected; lets path searches reject unreachable targets up front.
+     */
+    public boolean connected(int from, int to) {
+        return labels[from] != ROCK && labels[from] == labels[to];
+    }
+
+    public int componentCount() {
+        return componentStarts.length - 1;
+    }
+
+    public int componentSize(int component) {
+        return componentStarts[component + 1] - componentStarts[component];
+    }
+
+    /**
+     * The {@code index}-th open cell of the component, {@code index < componentSize(component)}.
+     */
+    public int openCell(int component, int index) {
+        return openCells[componentStarts[component] + index];
+    }
+
+    /**
+     * Component with the most open cells, or {@link #ROCK} if the cave has none.
+     */
+    public int largestComponent() {
+        int largest = ROCK;
+        for (int component = 0; component < componentCount(); component++) {
+            if (largest == ROCK || componentSize(component) > componentSize(largest)) {
+                largest = component;
+            }
+        }
+        return largest;
+    }
+
+    public int openCellCount() {
+        return openCells.length;
+    }
+
+    /**
+     * The {@code index}-th open cell as {@code row * columns + column}.
+     */
+    public int openCell(int index) {
+        return openCells[index];
+    }
+
+    public long estimatedBytes() {
+        return 4L * (labels.length + openCells.length + componentStarts.length) + moves.length + 64;
+    }
+}
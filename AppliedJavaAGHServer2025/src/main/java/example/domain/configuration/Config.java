@@ -2,5 +2,11 @@ package example.domain.configuration;
 
 import java.util.Collection;
 
-public record Config(Collection<PlayerConfiguration> known) {
-}
\ No newline at end of file
+/**
+ * @param interestRadius optional half-width of the square window of entities each player receives; absent sends everything
+ */
+public record Config(Collection<PlayerConfiguration> known, Integer interestRadius) {
+    public Config(Collection<PlayerConfiguration> known) {
+        this(known, null);
+    }
+}
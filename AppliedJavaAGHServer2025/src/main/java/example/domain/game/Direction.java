@@ -4,5 +4,21 @@ public enum Direction {
     Up,
     Down,
     Left,
-    Right
-}
\ No newline at end of file
+    Right;
+
+    public int rowDelta() {
+        return switch (this) {
+            case Up -> -1;
+            case Down -> 1;
+            case Left, Right -> 0;
+        };
+    }
+
+    public int columnDelta() {
+        return switch (this) {
+            case Left -> -1;
+            case Right -> 1;
+            case Up, Down -> 0;
+        };
+    }
+}
@@ -2,8 +2,21 @@ package example.domain.game;
 
 import java.util.Arrays;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public final class DrunkenCave implements Cave {
+    /**
+     * How the cave is carved. Every variant opens the same number of cells.
+     */
+    public enum Generation {
+        /** One random walk from the centre; slows down sharply once most cells are open. */
+        SINGLE_WALKER,
+        /** Several walkers that jump to the frontier when stuck, see {@link DrunkenWalkers}. */
+        MULTI_WALKER,
+        /** Multiple walkers on disjoint column strips carved in parallel and stitched together. */
+        PARALLEL
+    }
+
     public final int columns;
     public final int rows;
     public boolean[] rocks;
@@ -15,14 +28,26 @@ public final class DrunkenCave implements Cave {
     }
 
     public DrunkenCave(int rows, int columns) {
+        this(rows, columns, ThreadLocalRandom.current(), Generation.MULTI_WALKER);
+    }
+
+    public DrunkenCave(int rows, int columns, RandomGenerator rg, Generation generation) {
         this.columns = columns;
         this.rows = rows;
         this.rocks = new boolean[columns * rows];
         Arrays.fill(this.rocks, true);
-        initialize();
+        switch (generation) {
+            case SINGLE_WALKER -> initialize(rg);
+            case MULTI_WALKER -> DrunkenWalkers.carve(rocks, rows, columns, target(), false, rg);
+            case PARALLEL -> DrunkenWalkers.carve(rocks, rows, columns, target(), true, rg);
+        }
         border();
     }
 
+    private int target() {
+        return (int) ((long) rows() * columns() * 8 / 10);
+    }
+
     private void border() {
         for (int row = 0; row < rows(); row++) {
             set(row, 0, true);
@@ -34,11 +59,10 @@ public final class DrunkenCave implements Cave {
         }
     }
 
-    private void initialize() {
-        final var rg = ThreadLocalRandom.current();
+    private void initialize(RandomGenerator rg) {
         var row = rows() / 2;
         var column = columns() / 2;
-        var n = (rows() * columns() * 8) / 10;
+        var n = target();
         while (n > 0) {
             if (rock(row, column)) {
                 set(row, column, false);
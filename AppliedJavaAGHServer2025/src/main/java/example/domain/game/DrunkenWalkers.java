@@ -0,0 +1,173 @@
+package example.domain.game;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * Multi-walker variant of the {@link DrunkenCave} random walk.
+ * <p>
+ * The interior is split into vertical strips, each carved independently (optionally in parallel)
+ * by a few walkers confined to it. A walker that keeps stepping on open cells jumps to a random
+ * cell of its strip's frontier (carved cells that still touch rock) instead of wandering, which
+ * removes the coupon-collector tail of a single walk. Strips are stitched together by a corridor
+ * along the middle row that is carved before any walker starts.
+ * <p>
+ * Walkers only ever move onto cells adjacent to carved ones and never touch the border, so the
+ * result is always one connected component.
+ */
+final class DrunkenWalkers {
+    private static final int WALKERS_PER_STRIP = 4;
+    private static final int MIN_STRIP_WIDTH = 64;
+    private static final int MAX_STRIPS = 16;
+    private static final int PATIENCE = 4;
+    private static final int RECENT = 256;
+
+    private DrunkenWalkers() {
+    }
+
+    /**
+     * Carves {@code target} interior cells (capped at the interior size) out of a grid full of rock.
+     */
+    static void carve(boolean[] rocks, int rows, int columns, int target, boolean parallel, RandomGenerator rg) {
+        if (rows < 3 || columns < 3) {
+            return;
+        }
+        final int interiorColumns = columns - 2;
+        final int strips = parallel ? Math.max(1, Math.min(MAX_STRIPS, interiorColumns / MIN_STRIP_WIDTH)) : 1;
+        final long total = Math.min(target, (long) (rows - 2) * interiorColumns);
+
+        final var regions = new Strip[strips];
+        long assigned = 0;
+        for (int i = 0; i < strips; i++) {
+            final int from = 1 + (int) ((long) interiorColumns * i / strips);
+            final int to = 1 + (int) ((long) interiorColumns * (i + 1) / strips);
+            final long share = i == strips - 1
+                    ? total - assigned
+                    : total * (to - from) / interiorColumns;
+            assigned += share;
+            regions[i] = new Strip(rocks, rows, columns, from, to, (int) share, new SplittableRandom(rg.nextLong()));
+        }
+
+        // stitch strips through the middle row before walking, so the corridor counts towards each target
+        final int middle = rows / 2;
+        final int first = regions[0].centre();
+        final int last = regions[strips - 1].centre();
+        for (final var region : regions) {
+            for (int column = Math.max(first, region.from); column <= Math.min(last, region.to - 1); column++) {
+                region.open(middle * columns + column);
+            }
+        }
+
+        final var range = IntStream.range(0, strips);
+        (parallel ? range.parallel() : range).forEach(i -> regions[i].walk());
+    }
+
+    private static final class Strip {
+        private final boolean[] rocks;
+        private final int rows;
+        private final int columns;
+        private final int from;
+        private final int to;
+        private final int target;
+        private final SplittableRandom rg;
+        private int[] frontier = new int[64];
+        private int frontierSize;
+        private int carved;
+
+        private Strip(boolean[] rocks, int rows, int columns, int from, int to, int target, SplittableRandom rg) {
+            this.rocks = rocks;
+            this.rows = rows;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.target = target;
+            this.rg = rg;
+        }
+
+        int centre() {
+            return (from + to - 1) / 2;
+        }
+
+        void open(int cell) {
+            if (!rocks[cell]) {
+                return;
+            }
+            rocks[cell] = false;
+            carved++;
+            if (frontierSize == frontier.length) {
+                frontier = Arrays.copyOf(frontier, frontierSize * 2);
+            }
+            frontier[frontierSize++] = cell;
+        }
+
+        void walk() {
+            final var walkerRows = new int[WALKERS_PER_STRIP];
+            final var walkerColumns = new int[WALKERS_PER_STRIP];
+            final var idle = new int[WALKERS_PER_STRIP];
+            Arrays.fill(walkerRows, rows / 2);
+            Arrays.fill(walkerColumns, centre());
+            if (carved < target) {
+                open((rows / 2) * columns + centre());
+            }
+
+            while (carved < target) {
+                for (int w = 0; w < WALKERS_PER_STRIP && carved < target; w++) {
+                    if (idle[w] >= PATIENCE) {
+                        final int jump = jump();
+                        if (jump < 0) {
+                            return;
+                        }
+                        walkerRows[w] = jump / columns;
+                        walkerColumns[w] = jump % columns;
+                        idle[w] = 0;
+                    }
+
+                    int row = walkerRows[w];
+                    int column = walkerColumns[w];
+                    switch (rg.nextInt(4)) {
+                        case 0 -> row = Math.max(1, row - 1);
+                        case 1 -> row = Math.min(rows - 2, row + 1);
+                        case 2 -> column = Math.max(from, column - 1);
+                        default -> column = Math.min(to - 1, column + 1);
+                    }
+                    walkerRows[w] = row;
+                    walkerColumns[w] = column;
+
+                    final int cell = row * columns + column;
+                    if (rocks[cell]) {
+                        open(cell);
+                        idle[w] = 0;
+                    } else {
+                        idle[w]++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Picks a random frontier cell that still has rock next to it, dropping exhausted ones; -1 if none is left.
+         */
+        private int jump() {
+            while (frontierSize > 0) {
+                final int index = frontierSize - 1 - rg.nextInt(Math.min(frontierSize, RECENT));
+                final int cell = frontier[index];
+                if (touchesRock(cell)) {
+                    return cell;
+                }
+                frontier[index] = frontier[--frontierSize];
+            }
+            return -1;
+        }
+
+        private boolean touchesRock(int cell) {
+            final int row = cell / columns;
+            final int column = cell % columns;
+            return (row > 1 && rocks[cell - columns])
+                    || (row < rows - 2 && rocks[cell + columns])
+                    || (column > from && rocks[cell - 1])
+                    || (column < to - 1 && rocks[cell + 1]);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package example.domain.game;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Cave read straight from a memory-mapped cave file, see {@code example.cave.CaveLibrary}.
+ * Nothing is copied onto the heap, so opening a huge cave is instant and processes mapping the
+ * same file share the page cache.
+ * <p>
+ * Clients receive it in the {@link SimpleCave} wire format, streamed from the mapping, so it needs
+ * no client changes and no copy of the grid.
+ */
+@JsonTypeName("S")
+@JsonSerialize(using = SimpleCaveFormat.class)
+public final class MappedCave implements Cave {
+    private final int rows;
+    private final int columns;
+    private final LongBuffer bits;
+    private final IntBuffer distances;
+    private final int distanceSource;
+    private final int medianDistance;
+
+    /**
+     * @param bits           one bit per cell in {@code row * columns + column} order, set for rock
+     * @param distances      steps from {@code distanceSource} per cell (-1 if unreachable), or null
+     * @param distanceSource cell the distances are measured from
+     * @param medianDistance median of the reachable distances, or -1 without distance data
+     */
+    public MappedCave(int rows, int columns, LongBuffer bits, IntBuffer distances, int distanceSource, int medianDistance) {
+        this.rows = rows;
+        this.columns = columns;
+        this.bits = bits;
+        this.distances = distances;
+        this.distanceSource = distanceSource;
+        this.medianDistance = medianDistance;
+    }
+
+    public boolean rock(int row, int column) {
+        final long cell = (long) row * columns + column;
+        return (bits.get((int) (cell >>> 6)) >>> cell & 1L) != 0;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    public boolean hasDistances() {
+        return distances != null;
+    }
+
+    /**
+     * Location the stored distances are measured from, or null without distance data.
+     */
+    public Location distanceSource() {
+        return distances == null ? null : new Location(distanceSource / columns, distanceSource % columns);
+    }
+
+    /**
+     * Median steps from {@link #distanceSource()} over the reachable cells, stored in the file header.
+     */
+    public int medianDistance() {
+        if (distances == null) {
+            throw new IllegalStateException("Cave file has no distance data");
+        }
+        return medianDistance;
+    }
+
+    /**
+     * Precomputed steps from {@link #distanceSource()}, -1 for rock or unreachable cells.
+     */
+    public int distance(int row, int column) {
+        if (distances == null) {
+            throw new IllegalStateException("Cave file has no distance data");
+        }
+        return distances.get(row * columns + column);
+    }
+}
@@ -0,0 +1,125 @@
+package example.domain.game;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Bit-parallel version of the {@link SimpleCave} smoothing rule. Every row is packed into
+ * {@code long} words (bit {@code i} of word {@code w} is column {@code 64 * w + i}), the eight
+ * neighbours of 64 cells are obtained with word shifts and summed with a carry-save adder tree.
+ * Two buffers are swapped between iterations, so nothing is allocated per pass.
+ * <p>
+ * Matches {@code SimpleCave.iterate} exactly, including its quirk that the border of the next
+ * generation is left open.
+ */
+final class PackedAutomaton {
+    private final int rows;
+    private final int columns;
+    private final int words;
+    private final long[] interior;
+    private long[] current;
+    private long[] next;
+
+    private PackedAutomaton(boolean[] rocks, int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.words = (columns + 63) >>> 6;
+        this.interior = new long[words];
+        for (int column = 1; column < columns - 1; column++) {
+            interior[column >>> 6] |= 1L << column;
+        }
+        this.current = new long[rows * words];
+        this.next = new long[rows * words];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (rocks[row * columns + column]) {
+                    current[row * words + (column >>> 6)] |= 1L << column;
+                }
+            }
+        }
+    }
+
+    static boolean[] run(boolean[] rocks, int rows, int columns, int iterations, boolean parallel) {
+        final var automaton = new PackedAutomaton(rocks, rows, columns);
+        for (int i = 0; i < iterations; i++) {
+            automaton.iterate(parallel);
+        }
+        return automaton.unpack();
+    }
+
+    private void iterate(boolean parallel) {
+        if (rows < 3) {
+            Arrays.fill(next, 0L);
+        } else {
+            Arrays.fill(next, 0, words, 0L);
+            Arrays.fill(next, (rows - 1) * words, rows * words, 0L);
+            final var range = IntStream.range(1, rows - 1);
+            (parallel ? range.parallel() : range).forEach(this::row);
+        }
+
+        final var swap = current;
+        current = next;
+        next = swap;
+    }
+
+    private void row(int row) {
+        final int up = (row - 1) * words;
+        final int mid = row * words;
+        final int down = (row + 1) * words;
+        final int last = words - 1;
+
+        for (int w = 0; w < words; w++) {
+            final long u = current[up + w];
+            final long m = current[mid + w];
+            final long d = current[down + w];
+            final long uPrev = w > 0 ? current[up + w - 1] : 0L;
+            final long mPrev = w > 0 ? current[mid + w - 1] : 0L;
+            final long dPrev = w > 0 ? current[down + w - 1] : 0L;
+            final long uNext = w < last ? current[up + w + 1] : 0L;
+            final long mNext = w < last ? current[mid + w + 1] : 0L;
+            final long dNext = w < last ? current[down + w + 1] : 0L;
+
+            // neighbour at column - 1 and column + 1, aligned to the cell
+            final long ul = u << 1 | uPrev >>> 63;
+            final long ur = u >>> 1 | uNext << 63;
+            final long ml = m << 1 | mPrev >>> 63;
+            final long mr = m >>> 1 | mNext << 63;
+            final long dl = d << 1 | dPrev >>> 63;
+            final long dr = d >>> 1 | dNext << 63;
+
+            // carry-save adder tree: count = b0 + 2 * b1 + 4 * b2 + 8 * b3
+            final long s1 = ul ^ u ^ ur;
+            final long c1 = (ul & u) | (ur & (ul ^ u));
+            final long s2 = ml ^ mr ^ dl;
+            final long c2 = (ml & mr) | (dl & (ml ^ mr));
+            final long s3 = d ^ dr;
+            final long c3 = d & dr;
+
+            final long b0 = s1 ^ s2 ^ s3;
+            final long c4 = (s1 & s2) | (s3 & (s1 ^ s2));
+
+            final long t = c1 ^ c2 ^ c3;
+            final long c5 = (c1 & c2) | (c3 & (c1 ^ c2));
+            final long b1 = t ^ c4;
+            final long c6 = t & c4;
+
+            final long b2 = c5 ^ c6;
+            final long b3 = c5 & c6;
+
+            final long atMostTwo = ~b3 & ~b2 & ~(b1 & b0);
+            final long atMostFour = ~b3 & (~b2 | (~b1 & ~b0));
+
+            next[mid + w] = ((m & ~atMostTwo) | (~m & ~atMostFour)) & interior[w];
+        }
+    }
+
+    private boolean[] unpack() {
+        final var rocks = new boolean[rows * columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                rocks[row * columns + column] = (current[row * words + (column >>> 6)] >>> column & 1L) != 0;
+            }
+        }
+        return rocks;
+    }
+}
@@ -1,8 +1,23 @@
 package example.domain.game;
 
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public final class SimpleCave implements Cave {
+    private static final int ITERATIONS = 5;
+
+    /**
+     * How the cellular automaton is evaluated. All variants give the same cave for the same random sequence.
+     */
+    public enum Generation {
+        /** One cell at a time on the {@code boolean[]} grid. */
+        REFERENCE,
+        /** 64 cells per step on packed bit rows, see {@link PackedAutomaton}. */
+        PACKED,
+        /** Packed bit rows with rows processed in parallel. */
+        PARALLEL
+    }
+
     public final int columns;
     public final int rows;
     public boolean[] rocks;
@@ -14,12 +29,22 @@ public final class SimpleCave implements Cave {
     }
 
     public SimpleCave(int rows, int columns) {
+        this(rows, columns, ThreadLocalRandom.current(), Generation.PACKED);
+    }
+
+    public SimpleCave(int rows, int columns, RandomGenerator rg, Generation generation) {
         this.columns = columns;
         this.rows = rows;
         this.rocks = new boolean[columns * rows];
-        initialize();
-        for (int i = 0; i < 5; i++) {
-            iterate();
+        initialize(rg);
+        switch (generation) {
+            case REFERENCE -> {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    iterate();
+                }
+            }
+            case PACKED -> rocks = PackedAutomaton.run(rocks, rows, columns, ITERATIONS, false);
+            case PARALLEL -> rocks = PackedAutomaton.run(rocks, rows, columns, ITERATIONS, true);
         }
         border();
     }
@@ -35,8 +60,7 @@ public final class SimpleCave implements Cave {
         }
     }
 
-    private void initialize() {
-        final var rg = ThreadLocalRandom.current();
+    private void initialize(RandomGenerator rg) {
         for (int row = 0; row < rows(); row++) {
             for (int column = 0; column < columns(); column++) {
                 if (0 < column && column < columns() - 1 && 0 < row && row < rows() - 1) {
@@ -0,0 +1,48 @@
+package example.domain.game;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes any cave in the {@link SimpleCave} wire format, {@code {"type":"S","columns":C,"rows":R,"rocks":[...]}},
+ * reading the rocks cell by cell instead of materializing a grid. Caves stored differently on the
+ * server use it so clients keep deserializing a plain {@link SimpleCave}.
+ */
+final class SimpleCaveFormat extends StdSerializer<Cave> {
+    private static final long serialVersionUID = 1L;
+
+    SimpleCaveFormat() {
+        super(Cave.class);
+    }
+
+    @Override
+    public void serialize(Cave cave, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(cave);
+        fields(cave, gen);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(Cave cave, JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer) throws IOException {
+        final var typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(cave, JsonToken.START_OBJECT));
+        fields(cave, gen);
+        typeSer.writeTypeSuffix(gen, typeId);
+    }
+
+    private static void fields(Cave cave, JsonGenerator gen) throws IOException {
+        gen.writeNumberField("columns", cave.columns());
+        gen.writeNumberField("rows", cave.rows());
+        gen.writeArrayFieldStart("rocks");
+        for (int row = 0; row < cave.rows(); row++) {
+            for (int column = 0; column < cave.columns(); column++) {
+                gen.writeBoolean(cave.rock(row, column));
+            }
+        }
+        gen.writeEndArray();
+    }
+}
@@ -1,5 +1,7 @@
 package example.game;
 
+import example.cave.CaveTopology;
+import example.domain.Response;
 import example.domain.game.*;
 
 import java.io.FileWriter;
@@ -8,23 +10,45 @@ import java.io.PrintWriter;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 public class Game {
-    private static final Random rg = new Random();
     private static final int NUM_GOLD = 20;
     private static final int NUM_HEALTH = 20;
+    private static final int FAIR_START_ATTEMPTS = 16;
     private final Map<Item, Location> itemLocation;
     private final Map<Player, Location> playerLocation;
     private final Map<Player, Integer> playerHealth;
     private final Map<Player, Integer> playerGold;
     private final Map<Player, Integer> playerMoves;
     private final Set<Player.HumanPlayer> winnersWhoReachedExit;
+    // entities per packed cell, row * columns + column, kept in sync with the location maps:
+    // the item on a cell (there is at most one) and the count of players
+    private final LongObjectMap<Item> itemCells = new LongObjectMap<>();
+    private final LongIntMap playerCells = new LongIntMap();
+    // humans of the cell being fought over and those of them alive, reused across cells and ticks
+    private final List<Player.HumanPlayer> fighters = new ArrayList<>();
+    private final List<Player.HumanPlayer> survivors = new ArrayList<>();
+    // loot order: highest health first, then by name
+    private final Comparator<Player.HumanPlayer> lootOrder =
+            Comparator.comparingInt(this::healthOrZero).reversed().thenComparing(Player.HumanPlayer::name);
     private volatile boolean gameEnded = false;
+    private volatile GameSnapshot snapshot = GameSnapshot.EMPTY;
+    // what changed since the last published snapshot; unchanged parts are shared with it
+    private boolean itemsChanged = true;
+    private boolean playersChanged = true;
+    private boolean statsChanged = true;
+    // cells at ringDistance from ringExit, shared by the fair start suppliers
+    private long[] ring;
+    private int ringDistance;
+    private Location ringExit;
 
     private final Cave cave;
+    private final MatchRandom random;
+    // null for caves too large to index, those fall back to direct rock checks
+    private final CaveTopology topology;
+    // rock layer of the live map, built on first render
+    private volatile HtmlMap htmlMap;
 
     public Map<Player, Integer> playerHealth() {
         return Collections.unmodifiableMap(playerHealth);
@@ -48,14 +72,35 @@ public class Game {
         return cave;
     }
 
+    public MatchRandom random() {
+        return random;
+    }
+
+    /**
+     * State published at the end of the last {@link #step}; safe to read from any thread.
+     */
+    public GameSnapshot snapshot() {
+        return snapshot;
+    }
+
     public Game(Cave cave) {
+        this(cave, MatchRandom.unseeded());
+    }
+
+    /**
+     * Game drawing spawns and item values from the match's streams. Entities are kept in insertion
+     * order, so iteration, and with it the dragons' choices and the snapshots, replay with the seed.
+     */
+    public Game(Cave cave, MatchRandom random) {
         this.cave = cave;
-        this.playerLocation = new HashMap<>();
-        this.itemLocation = new HashMap<>();
-        this.playerHealth = new HashMap<>();
-        this.playerGold = new HashMap<>();
-        this.playerMoves = new HashMap<>();
-        this.winnersWhoReachedExit = new HashSet<>();
+        this.random = random;
+        this.topology = CaveTopology.supports(cave) ? CaveTopology.of(cave) : null;
+        this.playerLocation = new LinkedHashMap<>();
+        this.itemLocation = new LinkedHashMap<>();
+        this.playerHealth = new LinkedHashMap<>();
+        this.playerGold = new LinkedHashMap<>();
+        this.playerMoves = new LinkedHashMap<>();
+        this.winnersWhoReachedExit = new LinkedHashSet<>();
     }
 
     public void render() {
@@ -95,64 +140,53 @@ public class Game {
         }
     }
     public String renderString() {
-        StringBuilder sb = new StringBuilder();
-        // Dodajemy prosty styl dla komórki: stała szerokość, wysokość i centrowanie
-        String cellTemplate = "<span style='display:inline-block; width:25px; height:25px; text-align:center; vertical-align:middle;'>%s</span>";
-
-        for (int row = 0; row < cave.rows(); row++) {
-            for (int column = 0; column < cave.columns(); column++) {
-                final int r = row;
-                final int c = column;
-
-                // 1. Sprawdzanie graczy
-                String symbol = playerLocation.entrySet().stream()
-                        .filter(e -> e.getValue().row() == r && e.getValue().column() == c)
-                        .findFirst()
-                        .map(e -> switch (e.getKey()) {
-                            case Player.HumanPlayer p -> p.name().substring(0, 1).toUpperCase();
-                            case Player.Dragon d -> "\uD83D\uDC09"; // 🐉
-                        })
-                        .orElse(null);
-
-                // 2. Jeśli nie ma gracza, sprawdź przedmioty
-                if (symbol == null) {
-                    symbol = itemLocation.entrySet().stream()
-                            .filter(e -> e.getValue().row() == r && e.getValue().column() == c)
-                            .findFirst()
-                            .map(e -> switch (e.getKey()) {
-                                case Item.Gold g -> "\uD83D\uDCB0";   // 💰
-                                case Item.Health h -> "\uD83D\uDC8A"; // 💊
-                                case Item.Exit ex -> "\uD83D\uDEAA";  // 🚪
-                            })
-                            .orElse(null);
-                }
+        return renderString(
+                itemLocation.entrySet().stream()
+                        .map(entry -> new Response.StateLocations.ItemLocation(entry.getKey(), entry.getValue()))
+                        .toList(),
+                playerLocation.entrySet().stream()
+                        .map(entry -> new Response.StateLocations.PlayerLocation(entry.getKey(), entry.getValue()))
+                        .toList());
+    }
 
-                // 3. Jeśli puste, sprawdź skałę
-                if (symbol == null) {
-                    symbol = cave.rock(row, column) ? "\uD83E\uDEA8" : "&nbsp;"; // 🪨 lub twarda spacja HTML
-                }
+    /**
+     * Whether the cave is small enough for {@link #renderString}; larger caves are only drawn by the
+     * spectator stream.
+     */
+    public boolean rendersHtml() {
+        return HtmlMap.supports(cave);
+    }
 
-                sb.append(String.format(cellTemplate, symbol));
-            }
-            sb.append("<br>"); // Nowa linia HTML
+    /**
+     * Live map of the given entity locations, e.g. a published state, over the cached rock layer.
+     * Throws for caves beyond {@link HtmlMap#MAX_CELLS}, see {@link #rendersHtml()}.
+     */
+    public String renderString(Iterable<Response.StateLocations.ItemLocation> items,
+                               Iterable<Response.StateLocations.PlayerLocation> players) {
+        var map = htmlMap;
+        if (map == null) {
+            map = new HtmlMap(cave);
+            htmlMap = map;
         }
-        return sb.toString();
+        return map.render(items, players);
     }
 
 
     public void add(Item entity, Supplier<Location> generateLocation) {
         for (; ; ) {
             final var location = generateLocation.get();
+            final long cell = cell(location);
 
-            if (itemLocation.containsValue(location)) {
+            if (itemCells.containsKey(cell) || playerCells.containsKey(cell)) {
                 continue;
             }
 
-            if (playerLocation.containsValue(location)) {
-                continue;
+            final var previous = itemLocation.put(entity, location);
+            if (previous != null) {
+                itemCells.remove(cell(previous));
             }
-
-            itemLocation.put(entity, location);
+            itemCells.put(cell, entity);
+            itemsChanged = true;
 
             return;
         }
@@ -161,18 +195,21 @@ public class Game {
     public void add(Player entity, Supplier<Location> generateLocation) {
         for (; ; ) {
             final var location = generateLocation.get();
+            final long cell = cell(location);
 
-            if (itemLocation.containsValue(location)) {
-                continue;
-            }
-
-            if (playerLocation.containsValue(location)) {
+            if (itemCells.containsKey(cell) || playerCells.containsKey(cell)) {
                 continue;
             }
 
             playerMoves.put(entity, 0);
 
-            playerLocation.put(entity, location);
+            final var previous = playerLocation.put(entity, location);
+            if (previous != null) {
+                playerCells.addTo(cell(previous), -1);
+            }
+            playerCells.addTo(cell, 1);
+            playersChanged = true;
+            statsChanged = true;
             if (entity instanceof Player.HumanPlayer player) {
                 playerHealth.put(player, 100);
                 playerGold.put(player, 0);
@@ -182,10 +219,20 @@ public class Game {
         }
     }
 
+    /**
+     * Random open cell. With a topology it is drawn from the component of the exit (or the largest
+     * component before the exit exists), so nothing spawns in a pocket no player can reach.
+     */
     public Location randomLocation() {
+        final int component = spawnComponent();
+        if (component != CaveTopology.ROCK) {
+            final int cell = topology.openCell(component, random.spawns().nextInt(topology.componentSize(component)));
+            return new Location(cell / cave.columns(), cell % cave.columns());
+        }
+
         for (; ; ) {
-            final var row = rg.nextInt(cave.rows());
-            final var column = rg.nextInt(cave.columns());
+            final var row = random.spawns().nextInt(cave.rows());
+            final var column = random.spawns().nextInt(cave.columns());
             if (cave.rock(row, column)) {
                 continue;
             }
@@ -200,206 +247,321 @@ public class Game {
             return;
         }
 
-        // Filtrowanie: usuwamy null-e, sprawdzamy poprawność Action i gracza
-        final var filtered = commands.stream()
-                .filter(Objects::nonNull)
-                .filter(a -> a.player() != null && a.direction() != null)
-                .collect(Collectors.groupingBy(Action::player))
-                .entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> entry.getValue().getFirst()
-                ));
-        // apply commands to player locations
-        final var moved = playerLocation.entrySet().stream()
-                .map(entry -> {
-                    final var action = filtered.get(entry.getKey());
-                    if (action == null) {
-                        return entry;
-                    }
-
-
-                    if (entry.getKey() instanceof Player.HumanPlayer human) {
-                        playerMoves.computeIfPresent(entry.getKey(), (k, v) -> v + 1);
-                        playerHealth.computeIfPresent(human, (player, hp) -> Math.max(0, hp - 1));
-                    }
-
-                    final var next = move(entry.getValue(), action);
-
-                    boolean hitRock = false;
-                    if (next.row() < 0 || next.row() >= cave.rows() ||
-                            next.column() < 0 || next.column() >= cave.columns()) {
-                        hitRock = true;
-                    } else if (cave.rock(next.row(), next.column())) {
-                        hitRock = true;
-                    }
-
-                    if (hitRock) {
-                        // Jeśli to człowiek, odejmij 5 HP
-                        if (entry.getKey() instanceof Player.HumanPlayer human) {
-                            playerHealth.computeIfPresent(human, (key, currentHp) -> Math.max(0, currentHp - 5));
-                        }
-                        return entry;
-                    }
+        // Filtrowanie: usuwamy null-e, sprawdzamy poprawność Action i gracza; pierwsza komenda gracza wygrywa
+        final var filtered = new HashMap<Player, Action>();
+        for (final var action : commands) {
+            if (action != null && action.player() != null && action.direction() != null) {
+                filtered.putIfAbsent(action.player(), action);
+            }
+        }
+        // moves and health change with every command
+        statsChanged |= !filtered.isEmpty();
+        final long tick = snapshot.tick() + 1;
+
+        // apply commands to player locations, working on packed cells
+        final var move = phase(tick, "move");
+        final var players = new Player[playerLocation.size()];
+        final var from = new long[players.length];
+        final var to = new long[players.length];
+        int count = 0;
+        for (final var entry : playerLocation.entrySet()) {
+            final var player = entry.getKey();
+            final long cell = cell(entry.getValue());
+            long target = cell;
+            final var action = filtered.get(player);
+            if (action != null) {
+                if (player instanceof Player.HumanPlayer human) {
+                    playerMoves.computeIfPresent(player, (k, v) -> v + 1);
+                    playerHealth.computeIfPresent(human, (k, hp) -> Math.max(0, hp - 1));
+                }
 
-                    return Map.entry(entry.getKey(), next);
-                })
-                .collect(Collectors.groupingBy(Map.Entry::getValue));
+                if (canMove(cell, action.direction())) {
+                    target = neighbour(cell, action.direction());
+                } else if (player instanceof Player.HumanPlayer human) {
+                    // Jeśli to człowiek, odejmij 5 HP
+                    playerHealth.computeIfPresent(human, (key, currentHp) -> Math.max(0, currentHp - 5));
+                }
+            }
+            players[count] = player;
+            from[count] = cell;
+            to[count++] = target;
+        }
+        commit(move, count);
+
+        // group players by target cell: chains of indices linked through next
+        final var fight = phase(tick, "fight");
+        final var heads = new LongIntMap(count);
+        final var next = new int[count];
+        for (int i = 0; i < count; i++) {
+            next[i] = heads.get(to[i], -1);
+            heads.put(to[i], i);
+        }
 
         // fight and collect gems
-        moved.forEach((key, value) -> fight(key, value.stream().map(Map.Entry::getKey).toList()));
+        final var group = new ArrayList<Player>();
+        for (int slot = 0; slot < heads.capacity(); slot++) {
+            if (!heads.used(slot)) {
+                continue;
+            }
+            group.clear();
+            for (int i = heads.value(slot); i >= 0; i = next[i]) {
+                group.add(players[i]);
+            }
+            statsChanged |= group.size() > 1 || itemCells.containsKey(heads.key(slot));
+            fight(heads.key(slot), group);
+        }
 
         // update locations
-        moved.forEach((location, entries) -> entries.forEach(entry -> playerLocation.put(entry.getKey(), entry.getValue())));
+        for (int i = 0; i < count; i++) {
+            if (to[i] != from[i]) {
+                playerCells.addTo(from[i], -1);
+                playerCells.addTo(to[i], 1);
+                playerLocation.put(players[i], location(to[i]));
+                playersChanged = true;
+            }
+        }
+        commit(fight, count);
+
+        final var respawn = phase(tick, "respawn");
+        int goldCount = 0;
+        int healthCount = 0;
+        for (final var item : itemLocation.keySet()) {
+            if (item instanceof Item.Gold) {
+                goldCount++;
+            } else if (item instanceof Item.Health) {
+                healthCount++;
+            }
+        }
 
+        if (goldCount < NUM_GOLD) {
+            generateGold(NUM_GOLD - goldCount);
+        }
+
+        if (healthCount < NUM_HEALTH) {
+            generateHealth(NUM_HEALTH - healthCount);
+        }
+        commit(respawn, count);
 
-        long goldCount = itemLocation.keySet().stream()
-                .filter(item -> item instanceof Item.Gold)
-                .count();
+        publish(tick);
+    }
 
-        if (goldCount < NUM_GOLD) {
-            generateGold(NUM_GOLD - (int) goldCount);
+    private static StepPhaseEvent phase(long tick, String name) {
+        final var event = new StepPhaseEvent();
+        event.tick = tick;
+        event.phase = name;
+        event.begin();
+        return event;
+    }
+
+    private static void commit(StepPhaseEvent event, int players) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.players = players;
+            event.commit();
         }
+    }
 
+    /**
+     * Publishes the state as it is without a step, e.g. once the players are placed, so viewers see
+     * them before the first tick.
+     */
+    public void publish() {
+        publish(snapshot.tick());
+    }
 
-        long healthCount = itemLocation.keySet().stream()
-                .filter(item -> item instanceof Item.Health)
-                .count();
+    /**
+     * Publishes the state of the tick, rebuilding only the parts that changed. Maps are copied in
+     * the game's insertion order, so the same seed lists scores in the same order on every JVM.
+     */
+    private void publish(long tick) {
+        final var previous = snapshot;
+        final var items = itemsChanged
+                ? itemLocation.entrySet().stream()
+                        .map(entry -> new Response.StateLocations.ItemLocation(entry.getKey(), entry.getValue()))
+                        .toList()
+                : previous.itemLocations();
+        final var players = playersChanged
+                ? playerLocation.entrySet().stream()
+                        .map(entry -> new Response.StateLocations.PlayerLocation(entry.getKey(), entry.getValue()))
+                        .toList()
+                : previous.playerLocations();
+        final boolean stats = statsChanged;
+        snapshot = new GameSnapshot(tick, items, players,
+                stats ? Collections.unmodifiableMap(new LinkedHashMap<>(playerHealth)) : previous.playerHealths(),
+                stats ? Collections.unmodifiableMap(new LinkedHashMap<>(playerGold)) : previous.playerGolds(),
+                stats ? Collections.unmodifiableMap(new LinkedHashMap<>(playerMoves)) : previous.playerMoves());
+        itemsChanged = false;
+        playersChanged = false;
+        statsChanged = false;
+    }
 
-        if (healthCount < NUM_HEALTH) {
-            generateHealth(NUM_HEALTH - (int) healthCount);
+    private int spawnComponent() {
+        if (topology == null) {
+            return CaveTopology.ROCK;
+        }
+        final var exit = getExitLocation();
+        if (exit != null && !cave.rock(exit.row(), exit.column())) {
+            return topology.component(exit.row(), exit.column());
         }
+        return topology.largestComponent();
+    }
 
+    /**
+     * Cells of the spawn component not taken by an item or player, so item generation never waits for a free cell forever.
+     */
+    private int freeSpawnCells() {
+        final int component = spawnComponent();
+        if (component == CaveTopology.ROCK) {
+            return Integer.MAX_VALUE;
+        }
+        int taken = 0;
+        for (int slot = 0; slot < itemCells.capacity(); slot++) {
+            if (itemCells.used(slot) && topology.component((int) itemCells.key(slot)) == component) {
+                taken++;
+            }
+        }
+        for (int slot = 0; slot < playerCells.capacity(); slot++) {
+            if (playerCells.used(slot) && !itemCells.containsKey(playerCells.key(slot))
+                    && topology.component((int) playerCells.key(slot)) == component) {
+                taken++;
+            }
+        }
+        return topology.componentSize(component) - taken;
+    }
 
+    /**
+     * Whether a path between the two locations exists, answered in O(1) from the component labels
+     * so searches can skip unreachable targets. Without a topology every open pair counts as reachable.
+     */
+    public boolean reachable(Location from, Location to) {
+        if (!isValidLocation(from) || !isValidLocation(to)) {
+            return false;
+        }
+        if (topology == null) {
+            return true;
+        }
+        return topology.component(from.row(), from.column()) == topology.component(to.row(), to.column());
     }
 
     private void generateHealth(int amount) {
+        amount = Math.min(amount, freeSpawnCells());
         for (int i = 0; i < amount; i++) {
-            add(new Item.Health(i, ThreadLocalRandom.current().nextInt(100)), this::randomLocation);
+            add(new Item.Health(i, random.values().nextInt(100)), this::randomLocation);
         }
     }
 
 
     private void generateGold(int amount) {
+        amount = Math.min(amount, freeSpawnCells());
         for (int i = 0; i < amount; i++) {
-            add(new Item.Gold(i, ThreadLocalRandom.current().nextInt(100)), this::randomLocation);
+            add(new Item.Gold(i, random.values().nextInt(100)), this::randomLocation);
         }
     }
 
 
-    private void fight(Location location, List<Player> players) {
-        if (players.isEmpty()) return;
-
-        List<Player.HumanPlayer> humans = players.stream()
-                .filter(p -> p instanceof Player.HumanPlayer)
-                .map(p -> (Player.HumanPlayer) p)
-                .toList();
-
-        List<Player.Dragon> dragons = players.stream()
-                .filter(p -> p instanceof Player.Dragon)
-                .map(p -> (Player.Dragon) p)
-                .toList();
-
-        // SMOCZY ODDECH
-        for (Player.Dragon dragon : dragons) {
-            int damage = switch (dragon.size()) {
-                case Small -> 5;
-                case Medium -> 15;
-                case Large -> 40;
-            };
-            humans.forEach(h -> playerHealth.computeIfPresent(h, (k, hp) -> Math.max(0, hp - damage)));
+    private void fight(long cell, List<Player> group) {
+        final var humans = fighters;
+        humans.clear();
+        int dragonDamage = 0;
+        for (final var player : group) {
+            switch (player) {
+                case Player.HumanPlayer human -> humans.add(human);
+                case Player.Dragon dragon -> dragonDamage += switch (dragon.size()) {
+                    case Small -> 5;
+                    case Medium -> 15;
+                    case Large -> 40;
+                };
+            }
+        }
+        if (humans.isEmpty()) {
+            return;
         }
 
-        // AWANTURA
-        if (humans.size() > 1) {
-            int pvpDamage = (humans.size() - 1) * 10;
-            humans.forEach(h -> playerHealth.computeIfPresent(h, (k, hp) -> Math.max(0, hp - pvpDamage)));
+        // SMOCZY ODDECH: every dragon breathes on every human; AWANTURA: 10 per other human
+        final int damage = dragonDamage + (humans.size() - 1) * 10;
+        if (damage > 0) {
+            for (final var human : humans) {
+                final var hp = playerHealth.get(human);
+                if (hp != null) {
+                    playerHealth.put(human, Math.max(0, hp - damage));
+                }
+            }
         }
 
         // --- NOWA LOGIKA LOOTU ---
+        final var item = itemCells.get(cell);
+        if (item == null) {
+            return;
+        }
 
         // 1. Filtrujemy tylko żywych graczy i sortujemy ich deterministycznie
         // Sortowanie: 1. Najwyższe HP (malejąco), 2. Imię (rosnąco)
-        List<Player.HumanPlayer> aliveHumans = humans.stream()
-                .filter(h -> playerHealth.getOrDefault(h, 0) > 0)
-                .sorted(Comparator.comparingInt((Player.HumanPlayer h) -> playerHealth.getOrDefault(h, 0)).reversed()
-                        .thenComparing(Player.HumanPlayer::name))
-                .toList();
-
-        if (!aliveHumans.isEmpty()) {
-            // Obliczamy sumaryczne HP wszystkich żywych na polu
-            int totalHp = aliveHumans.stream()
-                    .mapToInt(h -> playerHealth.getOrDefault(h, 0))
-                    .sum();
-
-            // Znajdujemy przedmioty na tej pozycji
-            var itemsAtLocation = itemLocation.entrySet().stream()
-                    .filter(entry -> entry.getValue().equals(location))
-                    .map(Map.Entry::getKey)
-                    .toList();
-
-            for (Item item : itemsAtLocation) {
-                // Handle Exit - player finishes the game
-                if (item instanceof Item.Exit) {
-                    // Win logic: add 100 to health for all alive humans at exit
-                    for (var human : aliveHumans) {
-                        playerHealth.computeIfPresent(human, (k, v) -> Math.min(v + 100, 200)); // Allow exceeding normal max for winners
-                        winnersWhoReachedExit.add(human);
-                    }
-                    
-                    // Save results and mark game as ended
-                    if (!winnersWhoReachedExit.isEmpty()) {
-                        saveGameResults();
-                        gameEnded = true;
-                    }
-                    continue;
-                }
-                
-                int itemValue = switch (item) {
-                    case Item.Gold g -> g.value();
-                    case Item.Health h -> h.value();
-                    case Item.Exit e -> 0;
-                };
+        final var aliveHumans = survivors;
+        aliveHumans.clear();
+        int totalHp = 0;
+        for (final var human : humans) {
+            final int hp = playerHealth.getOrDefault(human, 0);
+            if (hp > 0) {
+                aliveHumans.add(human);
+                totalHp += hp;
+            }
+        }
+        if (aliveHumans.isEmpty()) {
+            return;
+        }
+        aliveHumans.sort(lootOrder);
+
+        // Handle Exit - player finishes the game
+        if (item instanceof Item.Exit) {
+            // Win logic: add 100 to health for all alive humans at exit
+            for (var human : aliveHumans) {
+                playerHealth.computeIfPresent(human, (k, v) -> Math.min(v + 100, 200)); // Allow exceeding normal max for winners
+                winnersWhoReachedExit.add(human);
+            }
 
-                int distributedTotal = 0;
-                Map<Player.HumanPlayer, Integer> shares = new HashMap<>();
+            // Save results and mark game as ended
+            if (!winnersWhoReachedExit.isEmpty()) {
+                saveGameResults();
+                gameEnded = true;
+            }
+            return;
+        }
 
-                // Podział proporcjonalny (floor)
-                for (var h : aliveHumans) {
-                    int hp = playerHealth.getOrDefault(h, 0);
-                    int share = (int) Math.floor((double) itemValue * hp / totalHp);
-                    shares.put(h, share);
-                    distributedTotal += share;
-                }
+        int itemValue = switch (item) {
+            case Item.Gold g -> g.value();
+            case Item.Health h -> h.value();
+            case Item.Exit e -> 0;
+        };
 
-                // 3. Rozdzielenie reszty deterministycznie (dla pierwszego na liście po sortowaniu)
-                int remainder = itemValue - distributedTotal;
-                if (remainder > 0) {
-                    Player.HumanPlayer luckyWinner = aliveHumans.get(0);
-                    shares.put(luckyWinner, shares.get(luckyWinner) + remainder);
-                }
+        // Podział proporcjonalny (floor), all shares from the health before the item is shared
+        final var shares = new int[aliveHumans.size()];
+        int distributedTotal = 0;
+        for (int i = 0; i < shares.length; i++) {
+            int hp = playerHealth.getOrDefault(aliveHumans.get(i), 0);
+            shares[i] = (int) Math.floor((double) itemValue * hp / totalHp);
+            distributedTotal += shares[i];
+        }
 
-                // 4. Aktualizacja map zdrowia i złota
-                shares.forEach((h, amount) -> {
-                    if (item instanceof Item.Gold) {
-                        playerGold.computeIfPresent(h, (k, v) -> Math.min(v + amount, 100));
-                    } else if (item instanceof Item.Health) {
-                        playerHealth.computeIfPresent(h, (k, v) -> Math.min(v + amount, 100));
-                    }
-                });
+        // 3. Rozdzielenie reszty deterministycznie (dla pierwszego na liście po sortowaniu)
+        shares[0] += itemValue - distributedTotal;
 
-                itemLocation.remove(item);
+        // 4. Aktualizacja map zdrowia i złota
+        final var stat = item instanceof Item.Gold ? playerGold : playerHealth;
+        for (int i = 0; i < shares.length; i++) {
+            final var human = aliveHumans.get(i);
+            final var current = stat.get(human);
+            if (current != null) {
+                stat.put(human, Math.min(current + shares[i], 100));
             }
         }
+
+        itemLocation.remove(item);
+        itemCells.remove(cell);
+        itemsChanged = true;
     }
 
-    private Location move(Location value, Action action) {
-        return switch (action.direction()) {
-            case Up -> new Location(value.row() - 1, value.column());
-            case Down -> new Location(value.row() + 1, value.column());
-            case Left -> new Location(value.row(), value.column() - 1);
-            case Right -> new Location(value.row(), value.column() + 1);
-        };
+    private int healthOrZero(Player.HumanPlayer player) {
+        return playerHealth.getOrDefault(player, 0);
     }
 
     public Integer health(Player.HumanPlayer player) {
@@ -410,7 +572,19 @@ public class Game {
         return playerGold.get(player);
     }
     
+    /**
+     * Places the exit at random, or at the distance source of a cave file with distance data, so
+     * the stored distances are the exit's and nothing has to be searched at startup.
+     */
     public void generateExit() {
+        if (cave instanceof MappedCave mapped && mapped.hasDistances()) {
+            final var source = mapped.distanceSource();
+            final long cell = cell(source);
+            if (!itemCells.containsKey(cell) && !playerCells.containsKey(cell)) {
+                add(new Item.Exit(0), () -> source);
+                return;
+            }
+        }
         add(new Item.Exit(0), this::randomLocation);
     }
     
@@ -427,72 +601,212 @@ public class Game {
         if (exitLocation == null) {
             return new HashMap<>();
         }
-        
-        return bfsDistances(exitLocation);
+
+        final var result = new HashMap<Location, Integer>();
+        forEachDistanceFromExit(exitLocation, (cell, distance) -> result.put(location(cell), distance));
+        return result;
     }
-    
-    private Map<Location, Integer> bfsDistances(Location start) {
-        Map<Location, Integer> distances = new HashMap<>();
-        Queue<Location> queue = new LinkedList<>();
-        
-        queue.add(start);
+
+    /**
+     * Median of the steps from the exit over every cell reachable from it, read from the cave file
+     * header when its distances were measured from the exit. Otherwise cells are counted per distance,
+     * and it is empty without an exit or for caves too large to search without stored distances.
+     */
+    public OptionalInt medianDistanceFromExit() {
+        final var exitLocation = getExitLocation();
+        if (exitLocation == null) {
+            return OptionalInt.empty();
+        }
+        if (cave instanceof MappedCave mapped && mapped.hasDistances() && exitLocation.equals(mapped.distanceSource())) {
+            final int median = mapped.medianDistance();
+            return median < 0 ? OptionalInt.empty() : OptionalInt.of(median);
+        }
+        if (topology == null) {
+            return OptionalInt.empty();
+        }
+        final var counts = new int[][]{new int[64]};
+        final long[] total = {0};
+        forEachDistanceFromExit(exitLocation, (cell, distance) -> {
+            if (distance >= counts[0].length) {
+                counts[0] = Arrays.copyOf(counts[0], Math.max(distance + 1, counts[0].length * 2));
+            }
+            counts[0][distance]++;
+            total[0]++;
+        });
+        long remaining = total[0] / 2;
+        for (int distance = 0; distance < counts[0].length; distance++) {
+            remaining -= counts[0][distance];
+            if (remaining < 0) {
+                return OptionalInt.of(distance);
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    private interface CellDistance {
+        void accept(long cell, int distance);
+    }
+
+    /**
+     * Steps from the exit to every cell reachable from it, read from the cave file when its distances
+     * were measured from the exit and searched otherwise.
+     */
+    private void forEachDistanceFromExit(Location exitLocation, CellDistance action) {
+        if (cave instanceof MappedCave mapped && mapped.hasDistances() && exitLocation.equals(mapped.distanceSource())) {
+            for (int row = 0; row < cave.rows(); row++) {
+                for (int column = 0; column < cave.columns(); column++) {
+                    final int distance = mapped.distance(row, column);
+                    if (distance >= 0) {
+                        action.accept((long) row * cave.columns() + column, distance);
+                    }
+                }
+            }
+            return;
+        }
+        final var distances = bfsDistances(cell(exitLocation));
+        for (int slot = 0; slot < distances.capacity(); slot++) {
+            if (distances.used(slot)) {
+                action.accept(distances.key(slot), distances.value(slot));
+            }
+        }
+    }
+
+    /**
+     * Steps from the start cell to every reachable cell, keyed by packed cell.
+     */
+    private LongIntMap bfsDistances(long start) {
+        final var distances = new LongIntMap();
+        var queue = new long[64];
+        int head = 0;
+        int tail = 0;
+
+        queue[tail++] = start;
         distances.put(start, 0);
-        
-        while (!queue.isEmpty()) {
-            Location current = queue.poll();
-            int currentDistance = distances.get(current);
-            
+
+        while (head < tail) {
+            final long current = queue[head++];
+            final int nextDistance = distances.get(current, 0) + 1;
+
             for (Direction dir : Direction.values()) {
-                Location next = moveLocation(current, dir);
-                
-                // Check if valid and not visited
-                if (isValidLocation(next) && !distances.containsKey(next)) {
-                    distances.put(next, currentDistance + 1);
-                    queue.add(next);
+                if (!canMove(current, dir)) {
+                    continue;
+                }
+                final long next = neighbour(current, dir);
+                if (!distances.containsKey(next)) {
+                    distances.put(next, nextDistance);
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, tail * 2);
+                    }
+                    queue[tail++] = next;
                 }
             }
         }
-        
+
         return distances;
     }
-    
-    private Location moveLocation(Location location, Direction direction) {
-        return switch (direction) {
-            case Up -> new Location(location.row() - 1, location.column());
-            case Down -> new Location(location.row() + 1, location.column());
-            case Left -> new Location(location.row(), location.column() - 1);
-            case Right -> new Location(location.row(), location.column() + 1);
-        };
+
+    /**
+     * Whether leaving the cell in the direction stays inside the cave on open ground;
+     * a single mask lookup when the cave has a topology.
+     */
+    private boolean canMove(long cell, Direction direction) {
+        if (topology != null) {
+            return topology.canMove((int) cell, direction);
+        }
+        final long row = cell / cave.columns() + direction.rowDelta();
+        final long column = cell % cave.columns() + direction.columnDelta();
+        return row >= 0 && row < cave.rows() && column >= 0 && column < cave.columns()
+                && !cave.rock((int) row, (int) column);
+    }
+
+    private long neighbour(long cell, Direction direction) {
+        return cell + (long) direction.rowDelta() * cave.columns() + direction.columnDelta();
+    }
+
+    /**
+     * Packs the location into {@code row * columns + column}; only locations inside the cave have a cell.
+     */
+    private long cell(Location location) {
+        if (!insideCave(location)) {
+            throw new IllegalArgumentException("Location outside the cave: " + location);
+        }
+        return (long) location.row() * cave.columns() + location.column();
+    }
+
+    private Location location(long cell) {
+        return new Location((int) (cell / cave.columns()), (int) (cell % cave.columns()));
     }
     
     private boolean isValidLocation(Location location) {
-        if (location.row() < 0 || location.row() >= cave.rows() ||
-            location.column() < 0 || location.column() >= cave.columns()) {
+        if (!insideCave(location)) {
             return false;
         }
         return !cave.rock(location.row(), location.column());
     }
+
+    private boolean insideCave(Location location) {
+        return location.row() >= 0 && location.row() < cave.rows() &&
+                location.column() >= 0 && location.column() < cave.columns();
+    }
     
     public List<Location> getLocationsAtDistance(int distance) {
-        Map<Location, Integer> distances = calculateDistancesFromExit();
-        return distances.entrySet().stream()
-                .filter(entry -> entry.getValue() == distance)
-                .map(Map.Entry::getKey)
-                .filter(loc -> !itemLocation.containsValue(loc))
-                .filter(loc -> !playerLocation.containsValue(loc))
-                .toList();
+        final var exitLocation = getExitLocation();
+        if (exitLocation == null) {
+            return List.of();
+        }
+        final var result = new ArrayList<Location>();
+        forEachDistanceFromExit(exitLocation, (cell, steps) -> {
+            if (steps == distance && !itemCells.containsKey(cell) && !playerCells.containsKey(cell)) {
+                result.add(location(cell));
+            }
+        });
+        return result;
     }
     
+    /**
+     * Free cell at the distance from the exit, drawn from the cached ring of such cells. Occupied
+     * draws are rejected, and after {@value #FAIR_START_ATTEMPTS} of them, e.g. once more players than
+     * cells share the distance, it falls back to a random location.
+     */
     public Supplier<Location> fairStartLocationSupplier(int targetDistance) {
         return () -> {
-            List<Location> candidates = getLocationsAtDistance(targetDistance);
-            if (candidates.isEmpty()) {
-                // Fallback to random if no locations at exact distance
-                return randomLocation();
+            final var ring = ring(targetDistance);
+            for (int attempt = 0; ring.length > 0 && attempt < FAIR_START_ATTEMPTS; attempt++) {
+                final long cell = ring[random.spawns().nextInt(ring.length)];
+                if (!itemCells.containsKey(cell) && !playerCells.containsKey(cell)) {
+                    return location(cell);
+                }
             }
-            return candidates.get(rg.nextInt(candidates.size()));
+            // Fallback to random if no free locations at exact distance
+            return randomLocation();
         };
     }
+
+    /**
+     * Cells at the distance from the exit, occupied or not, computed once for the exit and distance.
+     */
+    private long[] ring(int distance) {
+        final var exitLocation = getExitLocation();
+        if (exitLocation == null) {
+            return new long[0];
+        }
+        if (ring == null || ringDistance != distance || !exitLocation.equals(ringExit)) {
+            final var cells = new long[][]{new long[64]};
+            final int[] count = {0};
+            forEachDistanceFromExit(exitLocation, (cell, steps) -> {
+                if (steps == distance) {
+                    if (count[0] == cells[0].length) {
+                        cells[0] = Arrays.copyOf(cells[0], count[0] * 2);
+                    }
+                    cells[0][count[0]++] = cell;
+                }
+            });
+            ring = Arrays.copyOf(cells[0], count[0]);
+            ringDistance = distance;
+            ringExit = exitLocation;
+        }
+        return ring;
+    }
     
     /**
      * Save game results to a file when a player reaches the exit
@@ -0,0 +1,22 @@
+package example.game;
+
+import example.domain.Response;
+import example.domain.game.Player;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable state of the game after a tick, published by {@link Game#step} and read lock-free by
+ * the viewer and the client broadcasts. Parts that did not change during a tick are the same
+ * instances as in the previous snapshot, so publishing costs only what changed and readers can
+ * detect unchanged parts by identity.
+ */
+public record GameSnapshot(long tick,
+                           List<Response.StateLocations.ItemLocation> itemLocations,
+                           List<Response.StateLocations.PlayerLocation> playerLocations,
+                           Map<Player, Integer> playerHealths,
+                           Map<Player, Integer> playerGolds,
+                           Map<Player, Integer> playerMoves) {
+    public static final GameSnapshot EMPTY = new GameSnapshot(0, List.of(), List.of(), Map.of(), Map.of(), Map.of());
+}
@@ -0,0 +1,113 @@
+package example.game;
+
+import example.domain.Response;
+import example.domain.game.Cave;
+import example.domain.game.Item;
+import example.domain.game.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * HTML grid of the live map. The rock layer never changes, so it is rendered once per cave and
+ * each frame only splices the entity cells into it: O(cells + entities) instead of a lookup over
+ * all entities for every cell. The layer stays on the heap for the whole match, so only caves up
+ * to {@link #MAX_CELLS} get one.
+ */
+public final class HtmlMap {
+    /**
+     * Largest cave drawn as HTML. The layer takes about 240 bytes per cell, some 60 MB at the limit.
+     */
+    public static final int MAX_CELLS = 1 << 18;
+
+    private static final String CELL_PREFIX = "<span style='display:inline-block; width:25px; height:25px; text-align:center; vertical-align:middle;'>";
+    private static final String CELL_SUFFIX = "</span>";
+    private static final String ROCK = "\uD83E\uDEA8"; // 🪨
+    private static final String EMPTY = "&nbsp;";
+
+    private final Cave cave;
+    private final int columns;
+    private final String layer;
+    // start of every cell's span in the layer, cells in row * columns + column order
+    private final int[] starts;
+
+    public HtmlMap(Cave cave) {
+        if (!supports(cave)) {
+            throw new IllegalArgumentException("Cave too large for an HTML map: " + cave.rows() + "x" + cave.columns());
+        }
+        this.cave = cave;
+        this.columns = cave.columns();
+        this.starts = new int[cave.rows() * columns];
+        final var sb = new StringBuilder();
+        for (int row = 0; row < cave.rows(); row++) {
+            for (int column = 0; column < columns; column++) {
+                starts[row * columns + column] = sb.length();
+                sb.append(CELL_PREFIX).append(cave.rock(row, column) ? ROCK : EMPTY).append(CELL_SUFFIX);
+            }
+            sb.append("<br>"); // Nowa linia HTML
+        }
+        this.layer = sb.toString();
+    }
+
+    /**
+     * Whether the cave is small enough to keep its rock layer.
+     */
+    public static boolean supports(Cave cave) {
+        return (long) cave.rows() * cave.columns() <= MAX_CELLS;
+    }
+
+    /**
+     * Map with the entities drawn over the rock layer; a player hides an item on the same cell.
+     */
+    public String render(Iterable<Response.StateLocations.ItemLocation> items,
+                         Iterable<Response.StateLocations.PlayerLocation> players) {
+        final var overlay = new LongIntMap();
+        final var symbols = new ArrayList<String>();
+        // first entity drawn on a cell wins, players before items
+        for (final var player : players) {
+            final long cell = cell(player.location().row(), player.location().column());
+            if (!overlay.containsKey(cell)) {
+                overlay.put(cell, symbols.size());
+                symbols.add(switch (player.entity()) {
+                    case Player.HumanPlayer p -> p.name().substring(0, 1).toUpperCase();
+                    case Player.Dragon d -> "\uD83D\uDC09"; // 🐉
+                });
+            }
+        }
+        for (final var item : items) {
+            final long cell = cell(item.location().row(), item.location().column());
+            if (!overlay.containsKey(cell)) {
+                overlay.put(cell, symbols.size());
+                symbols.add(switch (item.entity()) {
+                    case Item.Gold g -> "\uD83D\uDCB0";   // 💰
+                    case Item.Health h -> "\uD83D\uDC8A"; // 💊
+                    case Item.Exit ex -> "\uD83D\uDEAA";  // 🚪
+                });
+            }
+        }
+
+        final var cells = new long[overlay.size()];
+        int count = 0;
+        for (int slot = 0; slot < overlay.capacity(); slot++) {
+            if (overlay.used(slot)) {
+                cells[count++] = overlay.key(slot);
+            }
+        }
+        Arrays.sort(cells);
+
+        final var sb = new StringBuilder(layer.length() + 32 * count);
+        int copied = 0;
+        for (final long cell : cells) {
+            final int start = starts[(int) cell];
+            sb.append(layer, copied, start)
+                    .append(CELL_PREFIX).append(symbols.get(overlay.get(cell, 0))).append(CELL_SUFFIX);
+            final boolean rock = cave.rock((int) (cell / columns), (int) (cell % columns));
+            copied = start + CELL_PREFIX.length() + (rock ? ROCK : EMPTY).length() + CELL_SUFFIX.length();
+        }
+        return sb.append(layer, copied, layer.length()).toString();
+    }
+
+    private long cell(int row, int column) {
+        return (long) row * columns + column;
+    }
+}
@@ -0,0 +1,144 @@
+package example.game;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from non-negative {@code long} keys to objects, the {@link LongIntMap} of
+ * things indexed by packed cell ({@code row * columns + column}). Linear probing, removal by
+ * backward shift, no per-entry allocation.
+ * <p>
+ * Iterate without allocating through the slots: {@code for (slot < capacity()) if (used(slot)) key(slot), value(slot)}.
+ */
+public final class LongObjectMap<V> {
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    /**
+     * @param expected entries the map holds without resizing
+     */
+    public LongObjectMap(int expected) {
+        final int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return keys[slot(key)] != EMPTY;
+    }
+
+    /**
+     * Value of the key, or null if it is absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        return (V) values[slot(key)];
+    }
+
+    public void put(long key, V value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Negative key: " + key);
+        }
+        final int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+        if (size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    public boolean remove(long key) {
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            return false;
+        }
+        // shift later entries of the probe run back so lookups never stop at the hole
+        int next = (slot + 1) & mask;
+        while (keys[next] != EMPTY) {
+            final int home = home(keys[next]);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[slot] = EMPTY;
+        values[slot] = null;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    public boolean used(int slot) {
+        return keys[slot] != EMPTY;
+    }
+
+    public long key(int slot) {
+        return keys[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V value(int slot) {
+        return (V) values[slot];
+    }
+
+    private int slot(long key) {
+        int slot = home(key);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int home(long key) {
+        final long hash = key * 0x9E37_79B9_7F4A_7C15L;
+        return (int) (hash ^ hash >>> 32) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private void resize() {
+        final var oldKeys = keys;
+        final var oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY) {
+                final int target = slot(oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package example.game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Randomness of one match, derived from a single seed. The seed is split in a fixed order into
+ * independent streams, one per consumer, so drawing more from one stream never shifts another and
+ * the same seed with the same commands replays an identical match. Streams belong to their match
+ * alone and are not thread-safe; each is used by whoever drives that part of the match.
+ */
+public final class MatchRandom {
+    private final long seed;
+    private final SplittableRandom cave;
+    private final SplittableRandom spawns;
+    private final SplittableRandom values;
+    private final SplittableRandom dragons;
+
+    public MatchRandom(long seed) {
+        this.seed = seed;
+        final var root = new SplittableRandom(seed);
+        this.cave = root.split();
+        this.spawns = root.split();
+        this.values = root.split();
+        this.dragons = root.split();
+    }
+
+    /**
+     * Match with a fresh seed, drawn without touching state shared with other matches.
+     */
+    public static MatchRandom unseeded() {
+        return new MatchRandom(ThreadLocalRandom.current().nextLong());
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * Carving the cave.
+     */
+    public RandomGenerator cave() {
+        return cave;
+    }
+
+    /**
+     * Locations of the exit, players and items.
+     */
+    public RandomGenerator spawns() {
+        return spawns;
+    }
+
+    /**
+     * Values of gold and health items.
+     */
+    public RandomGenerator values() {
+        return values;
+    }
+
+    /**
+     * Random moves of dragons.
+     */
+    public RandomGenerator dragons() {
+        return dragons;
+    }
+}
@@ -0,0 +1,28 @@
+package example.game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One phase of {@link Game#step}: {@code move} applies the commands, {@code fight} groups players by
+ * target cell, resolves fights and pickups and commits the moves, {@code respawn} tops up gold and health.
+ */
+@Name("example.StepPhase")
+@Label("Step Phase")
+@Category({"Dragon Cave", "Game"})
+@Description("Phase of a game step")
+@StackTrace(false)
+final class StepPhaseEvent extends Event {
+    @Label("Tick")
+    long tick;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Players")
+    int players;
+}
@@ -1,21 +1,37 @@
 package example.npc;
 
+import example.cave.CaveTopology;
 import example.domain.game.*;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public class DragonAI {
-    private final Random random = new Random();
+    private final RandomGenerator random;
+
+    public DragonAI() {
+        this(new SplittableRandom(ThreadLocalRandom.current().nextLong()));
+    }
+
+    /**
+     * @param random source of the random moves, e.g. {@link example.game.MatchRandom#dragons()} to replay a match
+     */
+    public DragonAI(RandomGenerator random) {
+        this.random = random;
+    }
     
     public List<Action> generateDragonActions(Map<Player, Location> playerLocations, Cave cave) {
         List<Action> actions = new ArrayList<>();
+        // precomputed move masks and components, null for caves too large to index
+        final var topology = CaveTopology.supports(cave) ? CaveTopology.of(cave) : null;
         
         for (Map.Entry<Player, Location> entry : playerLocations.entrySet()) {
             if (entry.getKey() instanceof Player.Dragon dragon) {
-                Direction direction = chooseDragonDirection(entry.getValue(), playerLocations, cave, dragon);
+                Direction direction = chooseDragonDirection(entry.getValue(), playerLocations, cave, topology, dragon);
                 actions.add(new Action(dragon, direction));
             }
         }
@@ -26,13 +42,17 @@ public class DragonAI {
     private Direction chooseDragonDirection(Location dragonLocation, 
                                            Map<Player, Location> playerLocations, 
                                            Cave cave,
+                                           CaveTopology topology,
                                            Player.Dragon dragon) {
-        // Find nearest human player
+        // Find nearest human player the dragon can actually reach
         Player.HumanPlayer nearestHuman = null;
         double minDistance = Double.MAX_VALUE;
         
         for (Map.Entry<Player, Location> entry : playerLocations.entrySet()) {
             if (entry.getKey() instanceof Player.HumanPlayer human) {
+                if (topology != null && !connected(topology, dragonLocation, entry.getValue())) {
+                    continue;
+                }
                 double distance = calculateDistance(dragonLocation, entry.getValue());
                 if (distance < minDistance) {
                     minDistance = distance;
@@ -44,17 +64,17 @@ public class DragonAI {
         // If there's a nearby human, move towards them
         if (nearestHuman != null) {
             Location humanLocation = playerLocations.get(nearestHuman);
-            Direction towardsHuman = getDirectionTowards(dragonLocation, humanLocation, cave);
+            Direction towardsHuman = getDirectionTowards(dragonLocation, humanLocation, cave, topology);
             if (towardsHuman != null) {
                 return towardsHuman;
             }
         }
         
         // Otherwise, move randomly
-        return getRandomValidDirection(dragonLocation, cave);
+        return getRandomValidDirection(dragonLocation, cave, topology);
     }
     
-    private Direction getDirectionTowards(Location from, Location to, Cave cave) {
+    private Direction getDirectionTowards(Location from, Location to, Cave cave, CaveTopology topology) {
         int rowDiff = to.row() - from.row();
         int colDiff = to.column() - from.column();
         
@@ -77,7 +97,7 @@ public class DragonAI {
         
         // Try preferred directions
         for (Direction dir : preferredDirections) {
-            if (isValidMove(from, dir, cave)) {
+            if (isValidMove(from, dir, cave, topology)) {
                 return dir;
             }
         }
@@ -85,11 +105,25 @@ public class DragonAI {
         return null;
     }
     
-    private Direction getRandomValidDirection(Location location, Cave cave) {
+    private Direction getRandomValidDirection(Location location, Cave cave, CaveTopology topology) {
+        if (topology != null && topology.inside(location.row(), location.column())) {
+            final int moves = topology.moves(topology.cell(location.row(), location.column()));
+            if (moves == 0) {
+                return Direction.Up; // Fallback
+            }
+            // pick the n-th set bit of the mask
+            int skip = random.nextInt(Integer.bitCount(moves));
+            int remaining = moves;
+            while (skip-- > 0) {
+                remaining &= remaining - 1;
+            }
+            return Direction.values()[Integer.numberOfTrailingZeros(remaining)];
+        }
+
         List<Direction> validDirections = new ArrayList<>();
         
         for (Direction dir : Direction.values()) {
-            if (isValidMove(location, dir, cave)) {
+            if (isValidMove(location, dir, cave, topology)) {
                 validDirections.add(dir);
             }
         }
@@ -101,26 +135,28 @@ public class DragonAI {
         return validDirections.get(random.nextInt(validDirections.size()));
     }
     
-    private boolean isValidMove(Location location, Direction direction, Cave cave) {
-        Location newLocation = getNewLocation(location, direction);
+    private boolean isValidMove(Location location, Direction direction, Cave cave, CaveTopology topology) {
+        if (topology != null && topology.inside(location.row(), location.column())) {
+            return topology.canMove(topology.cell(location.row(), location.column()), direction);
+        }
+
+        final int row = location.row() + direction.rowDelta();
+        final int column = location.column() + direction.columnDelta();
         
         // Check bounds
-        if (newLocation.row() < 0 || newLocation.row() >= cave.rows() ||
-            newLocation.column() < 0 || newLocation.column() >= cave.columns()) {
+        if (row < 0 || row >= cave.rows() || column < 0 || column >= cave.columns()) {
             return false;
         }
         
         // Check for rock
-        return !cave.rock(newLocation.row(), newLocation.column());
+        return !cave.rock(row, column);
     }
     
-    private Location getNewLocation(Location location, Direction direction) {
-        return switch (direction) {
-            case Up -> new Location(location.row() - 1, location.column());
-            case Down -> new Location(location.row() + 1, location.column());
-            case Left -> new Location(location.row(), location.column() - 1);
-            case Right -> new Location(location.row(), location.column() + 1);
-        };
+    private boolean connected(CaveTopology topology, Location from, Location to) {
+        if (!topology.inside(from.row(), from.column()) || !topology.inside(to.row(), to.column())) {
+            return false;
+        }
+        return topology.connected(topology.cell(from.row(), from.column()), topology.cell(to.row(), to.column()));
     }
     
     private double calculateDistance(Location from, Location to) {
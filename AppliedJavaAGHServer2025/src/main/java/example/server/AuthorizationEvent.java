@@ -0,0 +1,27 @@
+package example.server;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A game connection from accept until its authorization was answered.
+ */
+@Name("example.Authorization")
+@Label("Authorization")
+@Category({"Dragon Cave", "Connection"})
+@Description("Authorization of a game connection")
+@StackTrace(false)
+final class AuthorizationEvent extends Event {
+    @Label("Remote Address")
+    String remoteAddress;
+
+    @Label("Player")
+    String player;
+
+    @Label("Authorized")
+    boolean authorized;
+}
@@ -0,0 +1,27 @@
+package example.server;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Handing a tick to the game clients, the SSE spectators and the WebSocket live map.
+ */
+@Name("example.Broadcast")
+@Label("Broadcast")
+@Category({"Dragon Cave", "Server"})
+@Description("Publishing a tick to clients and spectators")
+@StackTrace(false)
+final class BroadcastEvent extends Event {
+    @Label("Tick")
+    long tick;
+
+    @Label("Spectators")
+    int spectators;
+
+    @Label("WebSocket Connections")
+    int webSocketConnections;
+}
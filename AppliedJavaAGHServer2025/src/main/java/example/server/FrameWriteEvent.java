@@ -0,0 +1,27 @@
+package example.server;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Writing and flushing one state frame to a game client; long ones point at a slow reader.
+ */
+@Name("example.FrameWrite")
+@Label("Frame Write")
+@Category({"Dragon Cave", "Connection"})
+@Description("State frame written to a game client")
+@StackTrace(false)
+final class FrameWriteEvent extends Event {
+    @Label("Player")
+    String player;
+
+    @Label("Tick")
+    long tick;
+
+    @Label("Characters")
+    int characters;
+}
@@ -0,0 +1,62 @@
+package example.server;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many expensive requests run at once. With a thread per request a burst of viewers would
+ * otherwise put as many renders on the CPU as there are viewers and starve the game tick. A request
+ * that cannot get a permit within the wait is answered with 503 and a retry hint.
+ */
+final class HeavyRequestLimit extends Filter {
+    private final int limit;
+    private final Semaphore permits;
+    private final long waitNanos;
+    private final LongAdder rejected = new LongAdder();
+
+    HeavyRequestLimit(int permits, long waitMillis) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("Heavy request limit needs at least one permit");
+        }
+        this.limit = permits;
+        this.permits = new Semaphore(permits);
+        this.waitNanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public String description() {
+        return "At most " + limit + " heavy requests at once";
+    }
+
+    long rejected() {
+        return rejected.sum();
+    }
+}
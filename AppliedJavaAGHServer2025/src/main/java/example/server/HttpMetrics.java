@@ -0,0 +1,81 @@
+package example.server;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request count, failures and latency per HTTP endpoint, recorded by a {@link Filter} on each
+ * context and rendered in the Prometheus text format.
+ */
+final class HttpMetrics {
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    private static final class Endpoint {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Filter timing every exchange of the endpoint, from dispatch until its handler returns.
+     */
+    Filter timed(String endpoint) {
+        final var stats = endpoints.computeIfAbsent(endpoint, e -> new Endpoint());
+        return new Filter() {
+            @Override
+            public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+                final long start = System.nanoTime();
+                boolean failed = true;
+                try {
+                    chain.doFilter(exchange);
+                    failed = exchange.getResponseCode() >= 500;
+                } finally {
+                    final long elapsed = System.nanoTime() - start;
+                    stats.requests.increment();
+                    stats.nanos.add(elapsed);
+                    stats.maxNanos.accumulate(elapsed);
+                    if (failed) {
+                        stats.failures.increment();
+                    }
+                }
+            }
+
+            @Override
+            public String description() {
+                return "Latency of " + endpoint;
+            }
+        };
+    }
+
+    long requests(String endpoint) {
+        final var stats = endpoints.get(endpoint);
+        return stats == null ? 0 : stats.requests.sum();
+    }
+
+    long failures(String endpoint) {
+        final var stats = endpoints.get(endpoint);
+        return stats == null ? 0 : stats.failures.sum();
+    }
+
+    void render(StringBuilder sb) {
+        sb.append("# TYPE http_requests_total counter\n");
+        endpoints.forEach((endpoint, stats) -> sample(sb, "http_requests_total", endpoint, stats.requests.sum()));
+        sb.append("# TYPE http_failures_total counter\n");
+        endpoints.forEach((endpoint, stats) -> sample(sb, "http_failures_total", endpoint, stats.failures.sum()));
+        sb.append("# TYPE http_request_seconds_sum counter\n");
+        endpoints.forEach((endpoint, stats) -> sample(sb, "http_request_seconds_sum", endpoint, stats.nanos.sum() / 1e9));
+        sb.append("# TYPE http_request_seconds_max gauge\n");
+        endpoints.forEach((endpoint, stats) -> sample(sb, "http_request_seconds_max", endpoint, stats.maxNanos.get() / 1e9));
+    }
+
+    private static void sample(StringBuilder sb, String name, String endpoint, Object value) {
+        sb.append(name).append("{endpoint=\"").append(endpoint).append("\"} ").append(value).append('\n');
+    }
+}
@@ -0,0 +1,92 @@
+package example.server;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One flight recording at a time, driven over HTTP: the JDK's {@code default} settings plus the game
+ * events, kept on disk for at most {@link #MAX_AGE} so a forgotten recording cannot fill it.
+ */
+final class JfrControl {
+    static final Duration MAX_AGE = Duration.ofMinutes(15);
+
+    private final Lock lock = new ReentrantLock();
+    private Recording recording;
+
+    /**
+     * @return false when a recording is already running
+     */
+    boolean start() throws IOException, ParseException {
+        lock.lock();
+        try {
+            if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                return false;
+            }
+            if (recording != null) {
+                recording.close();
+            }
+            final var next = new Recording(Configuration.getConfiguration("default"));
+            next.setName("dragon-cave");
+            next.setToDisk(true);
+            next.setMaxAge(MAX_AGE);
+            next.enable(TickEvent.class);
+            next.enable(BroadcastEvent.class);
+            next.enable(AuthorizationEvent.class);
+            next.enable(FrameWriteEvent.class);
+            next.enable("example.StepPhase");
+            next.start();
+            recording = next;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return false when no recording is running
+     */
+    boolean stop() {
+        lock.lock();
+        try {
+            if (recording == null || recording.getState() != RecordingState.RUNNING) {
+                return false;
+            }
+            recording.stop();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Contents of the current or last recording in the JFR file format, null when there is none.
+     */
+    InputStream dump() throws IOException {
+        lock.lock();
+        try {
+            if (recording == null) {
+                return null;
+            }
+            return recording.getStream(null, null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String state() {
+        lock.lock();
+        try {
+            return recording == null ? "NONE" : recording.getState().name();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package example.server;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear histogram of nanosecond durations in the manner of HdrHistogram: every power of two is
+ * split into {@value #SUB_BUCKETS} buckets, so a recorded value is known within 12.5% over the whole
+ * range of a long. Recording is a bucket index computed from the leading zeros and one atomic
+ * increment, with neither locks nor allocation.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // exported cumulative buckets, as powers of two in nanoseconds: about 1 µs up to about 69 s
+    private static final int FIRST_EXPORTED_BLOCK = 7;
+    private static final int LAST_EXPORTED_BLOCK = 33;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final LongAdder sum = new LongAdder();
+
+    void record(long nanos) {
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(index(value));
+        sum.add(value);
+    }
+
+    long count() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * Upper bound of the bucket holding the value at the quantile, 0 when nothing was recorded.
+     */
+    long valueAt(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be within [0, 1]: " + quantile);
+        }
+        final long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return lowerBound(i + 1) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Appends the histogram in the Prometheus text format, in seconds.
+     */
+    void render(StringBuilder sb, String name, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(" histogram\n");
+        long cumulative = 0;
+        int i = 0;
+        for (int block = FIRST_EXPORTED_BLOCK; block <= LAST_EXPORTED_BLOCK; block++) {
+            final int end = (block + 1) * SUB_BUCKETS;
+            for (; i < end; i++) {
+                cumulative += counts.get(i);
+            }
+            sb.append(name).append("_bucket{le=\"").append(lowerBound(end) / 1e9).append("\"} ").append(cumulative).append('\n');
+        }
+        for (; i < counts.length(); i++) {
+            cumulative += counts.get(i);
+        }
+        sb.append(name).append("_bucket{le=\"+Inf\"} ").append(cumulative).append('\n');
+        sb.append(name).append("_sum ").append(sum.sum() / 1e9).append('\n');
+        sb.append(name).append("_count ").append(cumulative).append('\n');
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long lowerBound(int index) {
+        final int block = index / SUB_BUCKETS;
+        final int sub = index % SUB_BUCKETS;
+        return block == 0 ? sub : (long) (SUB_BUCKETS + sub) << (block - 1);
+    }
+}
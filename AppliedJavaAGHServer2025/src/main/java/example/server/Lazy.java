@@ -0,0 +1,36 @@
+package example.server;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Value computed once, on first use, for data that is expensive to build and may never be asked for,
+ * like the cave frames of a huge cave. Hits are a single volatile read.
+ */
+final class Lazy<T> implements Supplier<T> {
+    private final Lock lock = new ReentrantLock();
+    private final Supplier<T> compute;
+    private volatile T value;
+
+    Lazy(Supplier<T> compute) {
+        this.compute = compute;
+    }
+
+    @Override
+    public T get() {
+        final var cached = value;
+        if (cached != null) {
+            return cached;
+        }
+        lock.lock();
+        try {
+            if (value == null) {
+                value = compute.get();
+            }
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package example.server;
+
+import example.domain.game.Cave;
+import example.domain.game.Item;
+import example.domain.game.Player;
+import example.game.GameSnapshot;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary WebSocket messages of the live map, big-endian:
+ * <pre>
+ * byte type: 1 cave, 2 keyframe, 3 delta
+ * cave:      int rows, int columns, long[ceil(rows * columns / 64)] with bit row * columns + column set for rock
+ * keyframe:  long tick, int count, count entities: every entity on the map
+ * delta:     long tick, int count, count entities: entities that appeared or moved, row -1 for removed ones
+ * entity:    int id, int row, int column, char symbol
+ * </pre>
+ * Ids are assigned per entity for the lifetime of the encoder. Symbols are {@code G}, {@code H}, {@code E}
+ * for items, the first letter of a human's name and {@code D} for dragons. Messages are returned as
+ * complete WebSocket frames, so one encoding serves every connection.
+ * <p>
+ * Not thread-safe; the tick thread feeds it one snapshot per tick.
+ */
+final class LiveMapFrames {
+    static final byte CAVE = 1;
+    static final byte KEYFRAME = 2;
+    static final byte DELTA = 3;
+    private static final int ENTITY_BYTES = 14;
+
+    private record Entity(int id, int row, int column, char symbol) {
+    }
+
+    private final Map<Object, Integer> ids = new HashMap<>();
+    private Map<Object, Entity> current = Map.of();
+    private GameSnapshot snapshot = GameSnapshot.EMPTY;
+    private int nextId;
+    private byte[] delta;
+    private byte[] keyframe;
+
+    static byte[] cave(Cave cave) {
+        final long cells = (long) cave.rows() * cave.columns();
+        final var buffer = ByteBuffer.allocate(Math.toIntExact(9 + (cells + 63) / 64 * 8));
+        buffer.put(CAVE).putInt(cave.rows()).putInt(cave.columns());
+        long bits = 0;
+        for (long cell = 0; cell < cells; cell++) {
+            if (cave.rock((int) (cell / cave.columns()), (int) (cell % cave.columns()))) {
+                bits |= 1L << cell;
+            }
+            if ((cell & 63) == 63 || cell == cells - 1) {
+                buffer.putLong(bits);
+                bits = 0;
+            }
+        }
+        return WebSocket.frame(WebSocket.OPCODE_BINARY, buffer.array());
+    }
+
+    /**
+     * Moves to the snapshot and encodes the delta from the previous one.
+     */
+    void update(GameSnapshot next) {
+        final boolean unchanged = next.itemLocations() == snapshot.itemLocations()
+                && next.playerLocations() == snapshot.playerLocations();
+        snapshot = next;
+        keyframe = null;
+        if (unchanged) {
+            delta = encode(DELTA, List.of());
+            return;
+        }
+
+        final var entities = new HashMap<Object, Entity>(current.size() * 2 + 16);
+        for (final var item : next.itemLocations()) {
+            entities.put(item.entity(), entity(item.entity(), item.location().row(), item.location().column(), switch (item.entity()) {
+                case Item.Gold g -> 'G';
+                case Item.Health h -> 'H';
+                case Item.Exit e -> 'E';
+            }));
+        }
+        for (final var player : next.playerLocations()) {
+            entities.put(player.entity(), entity(player.entity(), player.location().row(), player.location().column(), switch (player.entity()) {
+                case Player.HumanPlayer p -> Character.toUpperCase(p.name().charAt(0));
+                case Player.Dragon d -> 'D';
+            }));
+        }
+
+        final var changed = new ArrayList<Entity>();
+        entities.forEach((key, entity) -> {
+            if (!entity.equals(current.get(key))) {
+                changed.add(entity);
+            }
+        });
+        current.forEach((key, entity) -> {
+            if (!entities.containsKey(key)) {
+                changed.add(new Entity(entity.id(), -1, -1, entity.symbol()));
+                ids.remove(key);
+            }
+        });
+        current = entities;
+        delta = encode(DELTA, changed);
+    }
+
+    byte[] delta() {
+        return delta;
+    }
+
+    /**
+     * Full state of the current tick, encoded on first use.
+     */
+    byte[] keyframe() {
+        if (keyframe == null) {
+            keyframe = encode(KEYFRAME, current.values());
+        }
+        return keyframe;
+    }
+
+    private Entity entity(Object key, int row, int column, char symbol) {
+        final int id = ids.computeIfAbsent(key, k -> nextId++);
+        return new Entity(id, row, column, symbol);
+    }
+
+    private byte[] encode(byte type, Collection<Entity> entities) {
+        final var buffer = ByteBuffer.allocate(13 + entities.size() * ENTITY_BYTES);
+        buffer.put(type).putLong(snapshot.tick()).putInt(entities.size());
+        for (final var entity : entities) {
+            buffer.putInt(entity.id()).putInt(entity.row()).putInt(entity.column()).putChar(entity.symbol());
+        }
+        return WebSocket.frame(WebSocket.OPCODE_BINARY, buffer.array());
+    }
+}
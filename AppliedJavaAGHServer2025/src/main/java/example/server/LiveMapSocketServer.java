@@ -0,0 +1,198 @@
+package example.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * WebSocket endpoint of the live map on its own port, see {@link LiveMapFrames} for the messages.
+ * A connection first receives the cave, then a keyframe, then one delta per tick. Deltas are
+ * encoded once and shared; a connection whose bounded queue overflows drops everything queued and
+ * resynchronizes from the next tick's keyframe instead of applying a broken chain of deltas.
+ */
+final class LiveMapSocketServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(LiveMapSocketServer.class);
+
+    private final ServerSocket serverSocket;
+    private final Supplier<byte[]> caveFrame;
+    private final int capacity;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param caveFrame cave message, asked for by every connection and best built on first use
+     * @param capacity  frames queued per connection before it falls back to a keyframe
+     */
+    LiveMapSocketServer(int port, Supplier<byte[]> caveFrame, int capacity) throws IOException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("WebSocket queue needs a positive capacity");
+        }
+        this.serverSocket = new ServerSocket(port);
+        this.caveFrame = caveFrame;
+        this.capacity = capacity;
+    }
+
+    void start() {
+        Thread.startVirtualThread(this::accept);
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    int connections() {
+        return connections.size();
+    }
+
+    /**
+     * Queues the tick's delta for every connection, or the keyframe for those that need to resynchronize.
+     */
+    void publish(byte[] delta, Supplier<byte[]> keyframe) {
+        for (final var connection : connections) {
+            connection.offer(delta, keyframe);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.forEach(Connection::close);
+    }
+
+    private void accept() {
+        try {
+            while (!serverSocket.isClosed()) {
+                final var socket = serverSocket.accept();
+                Thread.startVirtualThread(() -> new Connection(socket).run());
+            }
+        } catch (IOException e) {
+            if (!serverSocket.isClosed()) {
+                logger.error("WebSocket server error", e);
+            }
+        }
+    }
+
+    private final class Connection {
+        private final Socket socket;
+        private final ArrayDeque<byte[]> queue = new ArrayDeque<>(capacity);
+        private final Lock lock = new ReentrantLock();
+        private final Condition ready = lock.newCondition();
+        private final Lock writeLock = new ReentrantLock();
+        private boolean needsKeyframe = true;
+        private boolean closed;
+
+        private Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        void offer(byte[] delta, Supplier<byte[]> keyframe) {
+            lock.lock();
+            try {
+                if (!needsKeyframe && queue.size() == capacity) {
+                    queue.clear();
+                    needsKeyframe = true;
+                }
+                if (needsKeyframe) {
+                    queue.clear();
+                    queue.addLast(keyframe.get());
+                    needsKeyframe = false;
+                } else {
+                    queue.addLast(delta);
+                }
+                ready.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                ready.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void run() {
+            try (socket) {
+                final var in = new BufferedInputStream(socket.getInputStream());
+                final var out = socket.getOutputStream();
+                if (!WebSocket.handshake(in, out)) {
+                    return;
+                }
+                write(out, caveFrame.get());
+                connections.add(this);
+                Thread.startVirtualThread(() -> read(in, out));
+                while (true) {
+                    final var frame = next();
+                    if (frame == null) {
+                        break;
+                    }
+                    write(out, frame);
+                }
+            } catch (IOException e) {
+                logger.debug("WebSocket spectator disconnected: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                connections.remove(this);
+            }
+        }
+
+        /**
+         * Answers pings and closes; spectators send nothing else worth reading.
+         */
+        private void read(BufferedInputStream in, OutputStream out) {
+            try {
+                while (true) {
+                    final var message = WebSocket.read(in);
+                    if (message.opcode() == WebSocket.OPCODE_PING) {
+                        write(out, WebSocket.frame(WebSocket.OPCODE_PONG, message.payload()));
+                    } else if (message.opcode() == WebSocket.OPCODE_CLOSE) {
+                        write(out, WebSocket.frame(WebSocket.OPCODE_CLOSE, new byte[0]));
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("WebSocket spectator read failed: {}", e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        private byte[] next() throws InterruptedException {
+            lock.lock();
+            try {
+                while (queue.isEmpty() && !closed) {
+                    ready.await();
+                }
+                return closed ? null : queue.pollFirst();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void write(OutputStream out, byte[] frame) throws IOException {
+            writeLock.lock();
+            try {
+                out.write(frame);
+                out.flush();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+}
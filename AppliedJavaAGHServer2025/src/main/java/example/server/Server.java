@@ -7,13 +7,18 @@ import java.net.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.text.ParseException;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.locks.*;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 import example.domain.Request;
 import example.domain.Response;
@@ -23,6 +28,7 @@ import example.domain.game.Action;
 import example.domain.game.Direction;
 import example.domain.game.Player;
 import example.game.Game;
+import example.game.GameSnapshot;
 import example.npc.DragonAI;
 import example.validation.ConfigValidator;
 import org.slf4j.Logger;
@@ -31,14 +37,44 @@ import org.slf4j.LoggerFactory;
 public class Server {
     private static final Logger logger = LoggerFactory.getLogger(Server.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
-
-    private final AtomicReference<State> state = new AtomicReference<>(new State(List.of(), List.of(), Map.of(), Map.of(), Map.of()));
+    // streams into a client's writer and leaves the socket open
+    private static final ObjectWriter streamingWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    // larger caves are streamed to each client instead of held as one String
+    private static final long CACHED_CAVE_CELLS = 1 << 22;
+    private static final int SPECTATOR_BUFFER = 8;
+    private static final int WEB_SOCKET_QUEUE = 16;
+    private static final long HEAVY_REQUEST_WAIT_MILLIS = 250;
+    private static final int TRACE_CAPACITY = 1 << 16;
+    private static final long TRACE_DEFAULT_SECONDS = 30;
+    private static final long TRACE_MAX_SECONDS = 600;
+
+    private final TickPublisher<State> states = new TickPublisher<>(new State(GameSnapshot.EMPTY, StateFrames.empty()));
     private final BlockingQueue<Action> actionsQueue = new LinkedBlockingQueue<>();
-    private final Lock stateLock = new ReentrantLock();
-    private final Condition stateUpdated = stateLock.newCondition();
     private final Game game;
     private final Collection<PlayerConfiguration> known;
+    // 0 when every player receives every entity
+    private final int interestRadius;
     private final DragonAI dragonAI;
+    private final TickCache<byte[]> pages = new TickCache<>();
+    private final TickCache<StateBody> stateBodies = new TickCache<>();
+    // tells /state entity tags of this run apart from those of earlier runs
+    private final String instance = Long.toHexString(System.currentTimeMillis());
+    private final SpectatorHub spectators = new SpectatorHub(SPECTATOR_BUFFER);
+    // built for the first spectator, a huge cave may never have one
+    private final Lazy<byte[]> caveFrame;
+    // encoded once for every connecting client
+    private final Lazy<String> caveJson;
+    private final byte[] spectatorPage;
+    private final LiveMapFrames liveMapFrames = new LiveMapFrames();
+    private volatile LiveMapSocketServer liveMapSockets;
+    private final HttpMetrics httpMetrics = new HttpMetrics();
+    private final ServerMetrics metrics = new ServerMetrics();
+    private final JfrControl jfr = new JfrControl();
+    private final TickTracer tracer = new TickTracer(TRACE_CAPACITY);
+    // renders and state bodies allowed at once, leaving the tick thread a core under a burst of viewers
+    private final HeavyRequestLimit heavyRequests = new HeavyRequestLimit(
+            Integer.getInteger("http.heavyRequests", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+            HEAVY_REQUEST_WAIT_MILLIS);
 
     public Server(Game game, Path path) throws IOException {
         final var config = objectMapper.readValue(Files.readAllBytes(path), Config.class);
@@ -52,23 +88,29 @@ public class Server {
         logger.info("Configuration validated successfully");
         
         this.known = config.known();
+        this.interestRadius = config.interestRadius() == null ? 0 : config.interestRadius();
         this.game = game;
-        this.dragonAI = new DragonAI();
+        this.dragonAI = new DragonAI(game.random().dragons());
+        this.caveFrame = new Lazy<>(() -> SpectatorFrames.cave(game.cave()));
+        this.caveJson = new Lazy<>(() -> {
+            try {
+                return objectMapper.writeValueAsString(new Response.StateCave(game.cave()));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        this.spectatorPage = resource("/spectator.html");
         
         // Generate exit first
         game.generateExit();
         logger.info("Exit generated at location: {}", game.getExitLocation());
         
         // Add players with fair start positions
-        Map<example.domain.game.Location, Integer> distances = game.calculateDistancesFromExit();
-        if (!distances.isEmpty()) {
+        final var median = game.medianDistanceFromExit();
+        if (median.isPresent()) {
             // Find a good starting distance (e.g., median or specific value)
-            int targetDistance = distances.values().stream()
-                    .sorted()
-                    .skip(distances.size() / 2)
-                    .findFirst()
-                    .orElse(10);
-            
+            int targetDistance = median.getAsInt();
+
             logger.info("Placing players at distance {} from exit", targetDistance);
             known.forEach((configuration) -> {
                 if (configuration.player() instanceof Player.HumanPlayer) {
@@ -82,6 +124,7 @@ public class Server {
             // Fallback to random placement
             known.forEach((configuration) -> game.add(configuration.player(), game::randomLocation));
         }
+        game.publish();
     }
 
     /**
@@ -89,7 +132,19 @@ public class Server {
      * @param httpPort Port dla podglądu stanu (WWW)
      */
     public void start(int gamePort, int httpPort) {
-        startHttpServer(httpPort);
+        start(gamePort, httpPort, 0);
+    }
+
+    /**
+     * @param gamePort      Port dla logiki gry (TCP/JSON)
+     * @param httpPort      Port dla podglądu stanu (WWW)
+     * @param webSocketPort Port for the binary WebSocket live map, 0 to disable it
+     */
+    public void start(int gamePort, int httpPort, int webSocketPort) {
+        if (webSocketPort > 0) {
+            startLiveMapSockets(webSocketPort);
+        }
+        startHttpServer(httpPort, webSocketPort);
 
         final var threadProcessCommand = Executors.defaultThreadFactory().newThread(this::processCommands);
         threadProcessCommand.start();
@@ -97,6 +152,7 @@ public class Server {
         try (final var serverSocket = new ServerSocket(gamePort)) {
             logger.info("Game server started on port {}", gamePort);
             logger.info("Web status view available at http://localhost:{}", httpPort);
+            logger.info("Spectator stream available at http://localhost:{}/live", httpPort);
 
             while (!Thread.currentThread().isInterrupted()) {
                 final var clientSocket = serverSocket.accept();
@@ -109,23 +165,242 @@ public class Server {
         }
     }
 
-    private void startHttpServer(int port) {
+    private void startLiveMapSockets(int port) {
+        try {
+            final var sockets = new LiveMapSocketServer(port, new Lazy<>(() -> LiveMapFrames.cave(game.cave())), WEB_SOCKET_QUEUE);
+            sockets.start();
+            liveMapSockets = sockets;
+            logger.info("WebSocket live map available on port {}", port);
+        } catch (IOException e) {
+            logger.error("Failed to start WebSocket live map", e);
+        }
+    }
+
+    private void startHttpServer(int port, int webSocketPort) {
         try {
             HttpServer httpServer = HttpServer.create(new InetSocketAddress(port), 0);
 
             // Endpoint zwracający aktualny stan jako JSON
-            httpServer.createContext("/state", exchange -> {
-                byte[] response = objectMapper.writeValueAsBytes(state.get());
-                exchange.getResponseHeaders().set("Content-Type", "application/json");
+            context(httpServer, "/state", true, exchange -> {
+                final var snapshot = game.snapshot();
+                final var body = stateBodies.get(snapshot.tick(), tick -> StateBody.of(instance, tick, encodeSnapshot(snapshot)));
+                final boolean gzip = StateBody.acceptsGzip(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+                final var headers = exchange.getResponseHeaders();
+                headers.set("Content-Type", "application/json");
+                headers.set("ETag", body.etag(gzip));
+                headers.set("Cache-Control", "no-cache");
+                headers.set("Vary", "Accept-Encoding");
+                if (body.matches(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+                if (gzip) {
+                    headers.set("Content-Encoding", "gzip");
+                }
+                final byte[] response = gzip ? body.gzip() : body.json();
+                exchange.sendResponseHeaders(200, response.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(response);
+                }
+            });
+
+            // Spectator stream: one frame per tick, encoded once for all subscribers
+            context(httpServer, "/events", false, exchange -> {
+                exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=UTF-8");
+                exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+                exchange.sendResponseHeaders(200, 0);
+                // the subscriber's own virtual thread writes from now on, the dispatcher is free again
+                spectators.subscribe(exchange.getResponseBody(), exchange::close,
+                        caveFrame.get(), SpectatorFrames.tick(game.snapshot()));
+            });
+
+            // Static page drawing the WebSocket live map with a pannable viewport
+            if (webSocketPort > 0) {
+                final var page = new String(resource("/spectator-ws.html"), StandardCharsets.UTF_8)
+                        .replace("{{port}}", Integer.toString(webSocketPort))
+                        .getBytes(StandardCharsets.UTF_8);
+                context(httpServer, "/live-ws", false, exchange -> {
+                    exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+                    exchange.sendResponseHeaders(200, page.length);
+                    try (OutputStream os = exchange.getResponseBody()) {
+                        os.write(page);
+                    }
+                });
+            }
+
+            // Static page drawing the spectator stream client-side
+            context(httpServer, "/live", false, exchange -> {
+                exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+                exchange.sendResponseHeaders(200, spectatorPage.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(spectatorPage);
+                }
+            });
+
+            context(httpServer, "/", true, exchange -> {
+                if (!game.rendersHtml()) {
+                    // too large to draw as HTML, the spectator page streams it instead
+                    exchange.getResponseHeaders().set("Location", "/live");
+                    exchange.sendResponseHeaders(303, -1);
+                    exchange.close();
+                    return;
+                }
+                byte[] responseBytes = livePage();
+
+                exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+                exchange.sendResponseHeaders(200, responseBytes.length);
+
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(responseBytes);
+                }
+            });
+
+            context(httpServer, "/metrics", false, exchange -> {
+                final var sb = new StringBuilder();
+                metrics.render(sb);
+                httpMetrics.render(sb);
+                sb.append("# TYPE http_rejected_total counter\n")
+                        .append("http_rejected_total ").append(heavyRequests.rejected()).append('\n');
+                final byte[] response = sb.toString().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=UTF-8");
                 exchange.sendResponseHeaders(200, response.length);
                 try (OutputStream os = exchange.getResponseBody()) {
                     os.write(response);
                 }
             });
 
-            httpServer.createContext("/", exchange -> {
-                String mapContent = game.renderString();
-                String html = """
+            // Flight recording: POST /jfr/start, POST /jfr/stop, GET /jfr/dump for the .jfr file
+            context(httpServer, "/jfr", false, this::handleJfr);
+
+            // Tick timeline: POST /trace/start?seconds=30, POST /trace/stop, GET /trace/dump for Perfetto
+            context(httpServer, "/trace", false, this::handleTrace);
+
+            // a virtual thread per request, so one slow viewer never holds up the others
+            httpServer.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            httpServer.start();
+        } catch (IOException e) {
+            logger.error("Failed to start HTTP server", e);
+        }
+    }
+
+    private void handleJfr(HttpExchange exchange) throws IOException {
+        final var path = exchange.getRequestURI().getPath();
+        final var method = exchange.getRequestMethod();
+        try {
+            final int status;
+            if (path.equals("/jfr/start") && method.equals("POST")) {
+                status = jfr.start() ? 200 : 409;
+            } else if (path.equals("/jfr/stop") && method.equals("POST")) {
+                status = jfr.stop() ? 200 : 409;
+            } else if (path.equals("/jfr/dump") && method.equals("GET")) {
+                final var recording = jfr.dump();
+                if (recording == null) {
+                    status = 404;
+                } else {
+                    exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+                    exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"dragon-cave.jfr\"");
+                    exchange.sendResponseHeaders(200, 0);
+                    try (recording; OutputStream os = exchange.getResponseBody()) {
+                        recording.transferTo(os);
+                    }
+                    return;
+                }
+            } else {
+                status = path.equals("/jfr") && method.equals("GET") ? 200 : 404;
+            }
+            final byte[] response = (jfr.state() + "\n").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        } catch (ParseException e) {
+            logger.error("Failed to load the JFR settings", e);
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        }
+    }
+
+    private void handleTrace(HttpExchange exchange) throws IOException {
+        final var path = exchange.getRequestURI().getPath();
+        final var method = exchange.getRequestMethod();
+        int status = 200;
+        byte[] response;
+        if (path.equals("/trace/start") && method.equals("POST")) {
+            final long seconds = traceSeconds(exchange.getRequestURI().getQuery());
+            if (seconds < 1 || seconds > TRACE_MAX_SECONDS) {
+                status = 400;
+            } else {
+                tracer.start(TimeUnit.SECONDS.toNanos(seconds));
+            }
+        } else if (path.equals("/trace/stop") && method.equals("POST")) {
+            tracer.stop();
+        } else if (path.equals("/trace/dump") && method.equals("GET")) {
+            response = tracer.export().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"dragon-cave-trace.json\"");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+            return;
+        } else if (!path.equals("/trace") || !method.equals("GET")) {
+            status = 404;
+        }
+        response = ((tracer.enabled() ? "RUNNING" : "STOPPED") + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    private static long traceSeconds(String query) {
+        if (query == null) {
+            return TRACE_DEFAULT_SECONDS;
+        }
+        for (final var parameter : query.split("&")) {
+            if (parameter.startsWith("seconds=")) {
+                try {
+                    return Long.parseLong(parameter.substring("seconds=".length()));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return TRACE_DEFAULT_SECONDS;
+    }
+
+    /**
+     * Registers a timed handler; heavy ones also share the concurrency cap.
+     */
+    private void context(HttpServer httpServer, String path, boolean heavy, HttpHandler handler) {
+        final var context = httpServer.createContext(path, handler);
+        context.getFilters().add(httpMetrics.timed(path));
+        if (heavy) {
+            context.getFilters().add(heavyRequests);
+        }
+    }
+
+    /**
+     * Live map page of the current snapshot, rendered once per tick however many viewers ask.
+     */
+    private byte[] livePage() {
+        final var current = game.snapshot();
+        return pages.get(current.tick(), tick -> renderPage(current));
+    }
+
+    private static byte[] encodeSnapshot(GameSnapshot snapshot) {
+        try {
+            return objectMapper.writeValueAsBytes(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode state", e);
+        }
+    }
+
+    private byte[] renderPage(GameSnapshot current) {
+        String html = """
         <!DOCTYPE html>
         <html>
         <head>
@@ -161,40 +436,37 @@ public class Server {
         </body>
         </html>
         """.formatted(
-                        mapContent,
-                        state.get().playerLocations().size(),
-                        state.get().itemLocations().size(),
-                        state.get().playerHealths().keySet().stream()
-                                .filter(player -> player instanceof Player.HumanPlayer) // Liczymy punkty tylko dla ludzi
-                                .map(player -> {
-                                    Player.HumanPlayer human = (Player.HumanPlayer) player;
-
-                                    int gold = state.get().playerGolds().getOrDefault(player, 0);
-                                    int hp = state.get().playerHealths().getOrDefault(player, 0);
-                                    int moves = state.get().playerMoves().getOrDefault(player, 0);
-
-                                    // Formuła: score = gold + hp - ruchy
-                                    int score = gold + hp - moves;
-
-                                    return "%s: %d".formatted(human.name(), score);
-                                })
-                                .collect(Collectors.joining(", "))
-                );
-                byte[] responseBytes = html.getBytes(java.nio.charset.StandardCharsets.UTF_8);
-
-                exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
-                exchange.sendResponseHeaders(200, responseBytes.length);
-
-                try (OutputStream os = exchange.getResponseBody()) {
-                    os.write(responseBytes);
-                }
-            });
+                game.renderString(current.itemLocations(), current.playerLocations()),
+                current.playerLocations().size(),
+                current.itemLocations().size(),
+                current.playerHealths().keySet().stream()
+                        .filter(player -> player instanceof Player.HumanPlayer) // Liczymy punkty tylko dla ludzi
+                        .map(player -> {
+                            Player.HumanPlayer human = (Player.HumanPlayer) player;
+
+                            int gold = current.playerGolds().getOrDefault(player, 0);
+                            int hp = current.playerHealths().getOrDefault(player, 0);
+                            int moves = current.playerMoves().getOrDefault(player, 0);
+
+                            // Formuła: score = gold + hp - ruchy
+                            int score = gold + hp - moves;
+
+                            return "%s: %d".formatted(human.name(), score);
+                        })
+                        .collect(Collectors.joining(", "))
+        );
+        return html.getBytes(StandardCharsets.UTF_8);
+    }
 
-            httpServer.setExecutor(null); // używa domyślnego
-            httpServer.start();
-        } catch (IOException e) {
-            logger.error("Failed to start HTTP server", e);
+    private void writeCave(BufferedWriter writer) throws IOException {
+        final var cave = game.cave();
+        if ((long) cave.rows() * cave.columns() <= CACHED_CAVE_CELLS) {
+            writer.write(caveJson.get());
+        } else {
+            streamingWriter.writeValue(writer, new Response.StateCave(cave));
         }
+        writer.newLine();
+        writer.flush();
     }
 
     private void handleClientCommands(BufferedReader reader, Player.HumanPlayer player) {
@@ -207,11 +479,15 @@ public class Server {
                 try {
                     final var request = objectMapper.readValue(line, Request.class);
                     if (request instanceof Request.Command(Direction direction)) {
+                        metrics.commandsReceived.increment();
                         if (direction != null) {
                             actionsQueue.put(new Action(player, direction));
+                        } else {
+                            metrics.commandsDropped.increment();
                         }
                     }
                 } catch (Exception e) {
+                    metrics.invalidJson.increment();
                     logger.warn("Received invalid JSON from player {}: {}", player, line);
                     // Nie przerywamy pętli, czekamy na kolejną komendę
                 }
@@ -222,13 +498,17 @@ public class Server {
     }
 
     private void handleClientConnection(Socket clientSocket) {
-        try (final var is = clientSocket.getInputStream();
+        metrics.connections.increment();
+        metrics.openConnections.increment();
+        try (final var is = metrics.counting(clientSocket.getInputStream());
              final var isr = new InputStreamReader(is);
              final var reader = new BufferedReader(isr);
-             final var os = clientSocket.getOutputStream();
+             final var os = metrics.counting(clientSocket.getOutputStream());
              final var osr = new OutputStreamWriter(os);
              final var writer = new BufferedWriter(osr)) {
             // handle authorization
+            final var authorization = new AuthorizationEvent();
+            authorization.begin();
             final var line = reader.readLine();
             if (line == null) {
                 return;
@@ -240,6 +520,7 @@ public class Server {
             try {
                 request = objectMapper.readValue(line, Request.class);
             } catch (Exception e) {
+                metrics.invalidJson.increment();
                 logger.warn("Invalid authorization JSON: {}", line);
                 return; // kończymy to połączenie, ale serwer żyje
             }
@@ -257,6 +538,7 @@ public class Server {
                     writer.write(json);
                     writer.newLine();
                     writer.flush();
+                    commit(authorization, clientSocket, null);
                     return;
                 }
 
@@ -264,16 +546,12 @@ public class Server {
                 writer.write(json);
                 writer.newLine();
                 writer.flush();
+                commit(authorization, clientSocket, player);
             } else {
                 return;
             }
 
-            {
-                final var json = objectMapper.writeValueAsString(new Response.StateCave(game.cave()));
-                writer.write(json);
-                writer.newLine();
-                writer.flush();
-            }
+            writeCave(writer);
 
             Thread t1 = Thread.startVirtualThread(() -> handleClientCommands(reader, player));
             Thread t2 = Thread.startVirtualThread(() -> handleClientState(writer, player));
@@ -285,6 +563,8 @@ public class Server {
         } catch (InterruptedException e) {
             logger.error("Commands processing thread interrupted", e);
             Thread.currentThread().interrupt();
+        } finally {
+            metrics.openConnections.decrement();
         }
     }
 
@@ -295,27 +575,72 @@ public class Server {
                 Thread.sleep(1000);
 
                 // Process all collected commands
+                final var tickEvent = new TickEvent();
+                tickEvent.begin();
+                final long drainStart = System.nanoTime();
                 final var actions = new LinkedList<Action>();
                 actionsQueue.drainTo(actions);
-                
+                // only the first command of a player counts in a tick
+                metrics.commandsDropped.add(actions.size() - actions.stream().map(Action::player).distinct().count());
+
                 // Add dragon AI actions
+                final long dragonsStart = System.nanoTime();
+                metrics.drain.record(dragonsStart - drainStart);
+                tracer.span("drain", null, drainStart, dragonsStart);
                 List<Action> dragonActions = dragonAI.generateDragonActions(game.playerLocation(), game.cave());
                 actions.addAll(dragonActions);
                 logger.debug("Generated {} dragon actions", dragonActions.size());
 
+                final long stepStart = System.nanoTime();
+                metrics.dragons.record(stepStart - dragonsStart);
+                tracer.span("dragons", null, dragonsStart, stepStart);
                 game.step(actions);
 
-                final var itemLocations = game.itemLocation().entrySet().stream().map(entry -> new Response.StateLocations.ItemLocation(entry.getKey(), entry.getValue())).toList();
-                final var playerLocations = game.playerLocation().entrySet().stream().map(entry -> new Response.StateLocations.PlayerLocation(entry.getKey(), entry.getValue())).toList();
-
-                // Update the state
-                stateLock.lock();
-                try {
-                    state.set(new State(itemLocations, playerLocations, game.playerHealth(), game.playerGold(), game.playerMoves()));
-                    // Notify client state threads
-                    stateUpdated.signalAll();
-                } finally {
-                    stateLock.unlock();
+                final long snapshotStart = System.nanoTime();
+                metrics.step.record(snapshotStart - stepStart);
+                tracer.span("step", null, stepStart, snapshotStart);
+                final var snapshot = game.snapshot();
+                final var previous = states.latest().value();
+
+                // location fragments are encoded once per tick and shared by all connections,
+                // and reused while the snapshot shares its location lists with the previous one
+                final var frames = snapshot.itemLocations() == previous.snapshot().itemLocations()
+                        && snapshot.playerLocations() == previous.snapshot().playerLocations()
+                        ? previous.frames()
+                        : encodeFrames(snapshot.itemLocations(), snapshot.playerLocations());
+
+                // Publish the state, waking each client state thread on its own
+                final long broadcastStart = System.nanoTime();
+                metrics.snapshot.record(broadcastStart - snapshotStart);
+                tracer.span("snapshot", null, snapshotStart, broadcastStart);
+                final var broadcastEvent = new BroadcastEvent();
+                broadcastEvent.begin();
+                states.publish(new State(snapshot, frames));
+                if (spectators.subscribers() > 0) {
+                    spectators.publish(SpectatorFrames.tick(snapshot));
+                }
+                final var sockets = liveMapSockets;
+                if (sockets != null && sockets.connections() > 0) {
+                    liveMapFrames.update(snapshot);
+                    sockets.publish(liveMapFrames.delta(), liveMapFrames::keyframe);
+                }
+                final long tickEnd = System.nanoTime();
+                metrics.broadcast.record(tickEnd - broadcastStart);
+                tracer.span("broadcast", null, broadcastStart, tickEnd);
+                tracer.span("tick", null, drainStart, tickEnd);
+                broadcastEvent.end();
+                if (broadcastEvent.shouldCommit()) {
+                    broadcastEvent.tick = snapshot.tick();
+                    broadcastEvent.spectators = spectators.subscribers();
+                    broadcastEvent.webSocketConnections = sockets == null ? 0 : sockets.connections();
+                    broadcastEvent.commit();
+                }
+                tickEvent.end();
+                if (tickEvent.shouldCommit()) {
+                    tickEvent.tick = snapshot.tick();
+                    tickEvent.commands = actions.size() - dragonActions.size();
+                    tickEvent.dragonActions = dragonActions.size();
+                    tickEvent.commit();
                 }
                 
                 // Check if game has ended (player reached exit)
@@ -333,24 +658,40 @@ public class Server {
     }
 
 
+    private static void commit(AuthorizationEvent event, Socket socket, Player.HumanPlayer player) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.remoteAddress = String.valueOf(socket.getRemoteSocketAddress());
+            event.player = player == null ? null : player.name();
+            event.authorized = player != null;
+            event.commit();
+        }
+    }
+
     private void handleClientState(BufferedWriter writer, Player.HumanPlayer player) {
         try {
+            long seen = states.latest().sequence();
             while (!Thread.currentThread().isInterrupted()) {
-                stateLock.lock();
-                try {
-                    stateUpdated.await();
-                    // Send the new state to the client
-                    final var currentState = state.get();
-                    final var playerState = new Response.StateLocations(currentState.itemLocations(),
-                            currentState.playerLocations(),
-                            currentState.playerHealths().getOrDefault(player, 0),
-                            currentState.playerGolds().getOrDefault(player, 0));
-                    final var stateJson = objectMapper.writeValueAsString(playerState);
-                    writer.write(stateJson);
-                    writer.newLine();
-                    writer.flush();
-                } finally {
-                    stateLock.unlock();
+                final var tick = states.await(seen);
+                seen = tick.sequence();
+                // Send the new state to the client
+                final var currentState = tick.value();
+                final var stateJson = currentState.frames().frame(player,
+                        currentState.snapshot().playerHealths().getOrDefault(player, 0),
+                        currentState.snapshot().playerGolds().getOrDefault(player, 0));
+                final var write = new FrameWriteEvent();
+                write.begin();
+                final long writeStart = System.nanoTime();
+                writer.write(stateJson);
+                writer.newLine();
+                writer.flush();
+                tracer.span("write", player.name(), writeStart, System.nanoTime());
+                write.end();
+                if (write.shouldCommit()) {
+                    write.player = player.name();
+                    write.tick = currentState.snapshot().tick();
+                    write.characters = stateJson.length() + 1;
+                    write.commit();
                 }
             }
         } catch (IOException | InterruptedException e) {
@@ -363,10 +704,24 @@ public class Server {
         }
     }
 
-    private record State(List<Response.StateLocations.ItemLocation> itemLocations,
-                         List<Response.StateLocations.PlayerLocation> playerLocations,
-                         Map<Player, Integer> playerHealths,
-                         Map<Player, Integer> playerGolds,
-                         Map<Player, Integer> playerMoves) {
+    private static byte[] resource(String name) throws IOException {
+        try (final var in = Server.class.getResourceAsStream(name)) {
+            return Objects.requireNonNull(in, name + " missing").readAllBytes();
+        }
+    }
+
+    private StateFrames encodeFrames(List<Response.StateLocations.ItemLocation> itemLocations,
+                                     List<Response.StateLocations.PlayerLocation> playerLocations) {
+        try {
+            return StateFrames.encode(itemLocations, playerLocations, interestRadius, objectMapper);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode state", e);
+        }
+    }
+
+    /**
+     * Published game snapshot with the client frames encoded from it.
+     */
+    private record State(GameSnapshot snapshot, StateFrames frames) {
     }
 }
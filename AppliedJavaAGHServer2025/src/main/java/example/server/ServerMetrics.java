@@ -0,0 +1,90 @@
+package example.server;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tick phase latencies and game protocol counters, rendered in the Prometheus text format. The
+ * phases are recorded by the tick thread alone; the counters are bumped from every connection, so
+ * they are striped {@link LongAdder}s. Nothing on the recording side locks or allocates.
+ */
+final class ServerMetrics {
+    final LatencyHistogram drain = new LatencyHistogram();
+    final LatencyHistogram dragons = new LatencyHistogram();
+    final LatencyHistogram step = new LatencyHistogram();
+    final LatencyHistogram snapshot = new LatencyHistogram();
+    final LatencyHistogram broadcast = new LatencyHistogram();
+
+    final LongAdder commandsReceived = new LongAdder();
+    final LongAdder commandsDropped = new LongAdder();
+    final LongAdder invalidJson = new LongAdder();
+    final LongAdder connections = new LongAdder();
+    final LongAdder openConnections = new LongAdder();
+    final LongAdder bytesIn = new LongAdder();
+    final LongAdder bytesOut = new LongAdder();
+
+    void render(StringBuilder sb) {
+        drain.render(sb, "game_tick_drain_seconds", "Draining the queued player commands");
+        dragons.render(sb, "game_tick_dragons_seconds", "Planning the dragon moves");
+        step.render(sb, "game_tick_step_seconds", "Game.step");
+        snapshot.render(sb, "game_tick_snapshot_seconds", "Taking the snapshot and encoding the client frames");
+        broadcast.render(sb, "game_tick_broadcast_seconds", "Publishing the tick to clients and spectators");
+        counter(sb, "game_commands_received_total", "Move commands received from players", commandsReceived);
+        counter(sb, "game_commands_dropped_total", "Move commands without a direction or superseded within a tick", commandsDropped);
+        counter(sb, "game_invalid_json_total", "Lines from players that were not valid requests", invalidJson);
+        counter(sb, "game_connections_total", "Game connections accepted", connections);
+        sb.append("# HELP game_connections_open Game connections currently open\n")
+                .append("# TYPE game_connections_open gauge\n")
+                .append("game_connections_open ").append(openConnections.sum()).append('\n');
+        counter(sb, "game_bytes_received_total", "Bytes read from game connections", bytesIn);
+        counter(sb, "game_bytes_sent_total", "Bytes written to game connections", bytesOut);
+    }
+
+    InputStream counting(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                final int b = super.read();
+                if (b >= 0) {
+                    bytesIn.increment();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                final int read = super.read(b, off, len);
+                if (read > 0) {
+                    bytesIn.add(read);
+                }
+                return read;
+            }
+        };
+    }
+
+    OutputStream counting(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                bytesOut.increment();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                bytesOut.add(len);
+            }
+        };
+    }
+
+    private static void counter(StringBuilder sb, String name, String help, LongAdder value) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(" counter\n")
+                .append(name).append(' ').append(value.sum()).append('\n');
+    }
+}
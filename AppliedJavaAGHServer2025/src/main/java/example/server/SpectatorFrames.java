@@ -0,0 +1,83 @@
+package example.server;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import example.domain.game.Cave;
+import example.domain.game.Item;
+import example.domain.game.Player;
+import example.game.GameSnapshot;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact Server-Sent Events frames drawn by the static spectator page.
+ * <pre>
+ * event: cave
+ * data: {"rows":R,"columns":C,"rocks":"0110..."}           one digit per cell, 1 for rock
+ *
+ * data: {"tick":T,"items":[[row,column,"G"],...],"players":[[row,column,"M"],...],"scores":{"Maks":120}}
+ * </pre>
+ * Items are {@code G}old, {@code H}ealth or {@code E}xit; players are the first letter of a human's
+ * name or {@code D} for a dragon.
+ */
+final class SpectatorFrames {
+    private SpectatorFrames() {
+    }
+
+    static byte[] cave(Cave cave) {
+        final var sb = new StringBuilder("event: cave\ndata: {\"rows\":").append(cave.rows())
+                .append(",\"columns\":").append(cave.columns())
+                .append(",\"rocks\":\"");
+        for (int row = 0; row < cave.rows(); row++) {
+            for (int column = 0; column < cave.columns(); column++) {
+                sb.append(cave.rock(row, column) ? '1' : '0');
+            }
+        }
+        return sb.append("\"}\n\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] tick(GameSnapshot snapshot) {
+        final var sb = new StringBuilder("data: {\"tick\":").append(snapshot.tick()).append(",\"items\":[");
+        boolean first = true;
+        for (final var item : snapshot.itemLocations()) {
+            first = separate(sb, first);
+            entity(sb, item.location().row(), item.location().column(), switch (item.entity()) {
+                case Item.Gold g -> "G";
+                case Item.Health h -> "H";
+                case Item.Exit e -> "E";
+            });
+        }
+        sb.append("],\"players\":[");
+        first = true;
+        for (final var player : snapshot.playerLocations()) {
+            first = separate(sb, first);
+            entity(sb, player.location().row(), player.location().column(), switch (player.entity()) {
+                case Player.HumanPlayer p -> p.name().substring(0, 1).toUpperCase();
+                case Player.Dragon d -> "D";
+            });
+        }
+        sb.append("],\"scores\":{");
+        first = true;
+        for (final var entry : snapshot.playerHealths().entrySet()) {
+            if (entry.getKey() instanceof Player.HumanPlayer human) {
+                first = separate(sb, first);
+                // Formuła: score = gold + hp - ruchy
+                final int score = snapshot.playerGolds().getOrDefault(human, 0) + entry.getValue()
+                        - snapshot.playerMoves().getOrDefault(human, 0);
+                sb.append('"').append(JsonStringEncoder.getInstance().quoteAsString(human.name())).append("\":").append(score);
+            }
+        }
+        return sb.append("}}\n\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean separate(StringBuilder sb, boolean first) {
+        if (!first) {
+            sb.append(',');
+        }
+        return false;
+    }
+
+    private static void entity(StringBuilder sb, int row, int column, String symbol) {
+        sb.append('[').append(row).append(',').append(column).append(",\"")
+                .append(JsonStringEncoder.getInstance().quoteAsString(symbol)).append("\"]");
+    }
+}
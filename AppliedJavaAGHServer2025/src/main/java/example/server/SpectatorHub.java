@@ -0,0 +1,158 @@
+package example.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans Server-Sent Events frames out to spectators. A frame is encoded once by the caller and the
+ * same bytes are queued for every subscriber. Each subscriber has a bounded buffer that drops its
+ * oldest frame when full and a virtual thread of its own that writes to the connection, so a slow
+ * spectator only loses frames and never holds up the tick thread or the other spectators.
+ */
+final class SpectatorHub {
+    private static final Logger logger = LoggerFactory.getLogger(SpectatorHub.class);
+    private static final byte[] KEEP_ALIVE = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final long KEEP_ALIVE_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final int capacity;
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param capacity frames buffered per subscriber before the oldest is dropped
+     */
+    SpectatorHub(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Spectator buffer needs a positive capacity");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Starts streaming to the connection, beginning with the given frames; {@code onClose} runs once it ends.
+     * The initial frames, like the cave, are written before anything buffered and are never dropped.
+     */
+    void subscribe(OutputStream out, Runnable onClose, byte[]... initial) {
+        final var subscriber = new Subscriber(out, onClose, initial);
+        subscribers.add(subscriber);
+        Thread.startVirtualThread(subscriber::run);
+    }
+
+    void publish(byte[] frame) {
+        for (final var subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    int subscribers() {
+        return subscribers.size();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    void close() {
+        subscribers.forEach(Subscriber::close);
+    }
+
+    private final class Subscriber {
+        private final OutputStream out;
+        private final Runnable onClose;
+        private final byte[][] initial;
+        private final ArrayDeque<byte[]> buffer = new ArrayDeque<>(capacity);
+        private final Lock lock = new ReentrantLock();
+        private final Condition ready = lock.newCondition();
+        private boolean closed;
+
+        private Subscriber(OutputStream out, Runnable onClose, byte[][] initial) {
+            this.out = out;
+            this.onClose = onClose;
+            this.initial = initial;
+        }
+
+        void offer(byte[] frame) {
+            lock.lock();
+            try {
+                if (buffer.size() == capacity) {
+                    buffer.pollFirst();
+                    dropped.increment();
+                }
+                buffer.addLast(frame);
+                ready.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                ready.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void run() {
+            try {
+                for (final var frame : initial) {
+                    out.write(frame);
+                }
+                out.flush();
+                while (true) {
+                    final byte[] frame = next();
+                    if (frame == null) {
+                        break;
+                    }
+                    out.write(frame);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                logger.debug("Spectator disconnected: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                subscribers.remove(this);
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    logger.debug("Failed to close spectator stream", e);
+                }
+                onClose.run();
+            }
+        }
+
+        /**
+         * Next frame to write, a keep-alive comment after a quiet period, or null once closed.
+         */
+        private byte[] next() throws InterruptedException {
+            lock.lock();
+            try {
+                long remaining = KEEP_ALIVE_NANOS;
+                while (buffer.isEmpty() && !closed) {
+                    if (remaining <= 0) {
+                        return KEEP_ALIVE;
+                    }
+                    remaining = ready.awaitNanos(remaining);
+                }
+                return closed ? null : buffer.pollFirst();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package example.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized {@code /state} body of one tick with its pre-gzipped variant and entity tag, so
+ * pollers cost a cache lookup and, within the same tick, a bodiless 304. The two variants differ
+ * byte for byte, so the gzip one carries its own strong tag, see {@link #etag(boolean)}.
+ */
+record StateBody(String etag, byte[] json, byte[] gzip) {
+
+    /**
+     * @param instance distinguishes server runs, so tags of a restarted server never match old ones
+     */
+    static StateBody of(String instance, long tick, byte[] json) {
+        final var gzipped = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (final var gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new StateBody("\"" + instance + "-" + tick + "\"", json, gzipped.toByteArray());
+    }
+
+    /**
+     * Tag of the identity or the gzip representation.
+     */
+    String etag(boolean gzip) {
+        return gzip ? gzipEtag() : etag;
+    }
+
+    private String gzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header value names this body, in either representation.
+     */
+    boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (final var tag : ifNoneMatch.split(",")) {
+            final var trimmed = tag.trim();
+            final var opaque = trimmed.startsWith("W/") ? trimmed.substring(2) : trimmed;
+            if (trimmed.equals("*") || opaque.equals(etag) || opaque.equals(gzipEtag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header value allows gzip.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (final var coding : acceptEncoding.split(",")) {
+            final var parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip") || parts[0].trim().equals("*")) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
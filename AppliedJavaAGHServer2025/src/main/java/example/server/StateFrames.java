@@ -0,0 +1,171 @@
+package example.server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import example.domain.Response;
+import example.domain.game.Player;
+import example.game.LongIntMap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Location lists of one tick, encoded once and shared by every client connection. Each item and
+ * player location is serialized a single time; a client's {@link Response.StateLocations} line is
+ * stitched together from those fragments plus its own health and gold.
+ * <p>
+ * With an interest radius a human player only receives the entities inside the square view window
+ * of that radius around it. Entities are bucketed into a uniform grid of radius-sized cells, so a
+ * lookup visits at most the 3x3 buckets around the player.
+ */
+final class StateFrames {
+    private final String[] fragments;
+    private final int[] rows;
+    private final int[] columns;
+    private final int itemCount;
+    private final Map<Player, Integer> playerIndex;
+    private final int radius;
+    private final LongIntMap buckets;
+    private final int[] next;
+    private final String allItems;
+    private final String allPlayers;
+
+    private StateFrames(String[] fragments, int[] rows, int[] columns, int itemCount,
+                        Map<Player, Integer> playerIndex, int radius) {
+        this.fragments = fragments;
+        this.rows = rows;
+        this.columns = columns;
+        this.itemCount = itemCount;
+        this.playerIndex = playerIndex;
+        this.radius = radius;
+        this.next = new int[fragments.length];
+        if (radius > 0) {
+            this.buckets = new LongIntMap(fragments.length);
+            for (int entity = 0; entity < fragments.length; entity++) {
+                final long bucket = bucket(rows[entity] / radius, columns[entity] / radius);
+                next[entity] = buckets.get(bucket, -1);
+                buckets.put(bucket, entity);
+            }
+        } else {
+            this.buckets = null;
+        }
+        this.allItems = join(0, itemCount);
+        this.allPlayers = join(itemCount, fragments.length);
+    }
+
+    static StateFrames empty() {
+        return new StateFrames(new String[0], new int[0], new int[0], 0, Map.of(), 0);
+    }
+
+    /**
+     * @param radius half-width of the view window, 0 to send every entity to every player
+     */
+    static StateFrames encode(List<Response.StateLocations.ItemLocation> itemLocations,
+                              List<Response.StateLocations.PlayerLocation> playerLocations,
+                              int radius,
+                              ObjectMapper objectMapper) throws JsonProcessingException {
+        final int count = itemLocations.size() + playerLocations.size();
+        final var fragments = new String[count];
+        final var rows = new int[count];
+        final var columns = new int[count];
+        final var playerIndex = new HashMap<Player, Integer>();
+        int entity = 0;
+        for (final var itemLocation : itemLocations) {
+            fragments[entity] = objectMapper.writeValueAsString(itemLocation);
+            rows[entity] = itemLocation.location().row();
+            columns[entity++] = itemLocation.location().column();
+        }
+        for (final var playerLocation : playerLocations) {
+            playerIndex.put(playerLocation.entity(), entity);
+            fragments[entity] = objectMapper.writeValueAsString(playerLocation);
+            rows[entity] = playerLocation.location().row();
+            columns[entity++] = playerLocation.location().column();
+        }
+        return new StateFrames(fragments, rows, columns, itemLocations.size(), playerIndex, radius);
+    }
+
+    /**
+     * JSON line of {@link Response.StateLocations} for the player.
+     */
+    String frame(Player.HumanPlayer player, int health, int gold) {
+        final String items;
+        final String players;
+        if (radius > 0) {
+            final var visible = visible(playerIndex.get(player));
+            int split = 0;
+            while (split < visible.length && visible[split] < itemCount) {
+                split++;
+            }
+            items = join(visible, 0, split);
+            players = join(visible, split, visible.length);
+        } else {
+            items = allItems;
+            players = allPlayers;
+        }
+        return "{\"type\":\"L\",\"itemLocations\":" + items
+                + ",\"playerLocations\":" + players
+                + ",\"health\":" + health
+                + ",\"gold\":" + gold + "}";
+    }
+
+    /**
+     * Entity indices inside the player's view window in ascending order, items before players.
+     */
+    private int[] visible(Integer self) {
+        if (self == null) {
+            return new int[0];
+        }
+        final int row = rows[self];
+        final int column = columns[self];
+        var found = new int[16];
+        int size = 0;
+        final int fromRow = Math.max(0, row - radius) / radius;
+        final int toRow = (row + radius) / radius;
+        final int fromColumn = Math.max(0, column - radius) / radius;
+        final int toColumn = (column + radius) / radius;
+        for (int bucketRow = fromRow; bucketRow <= toRow; bucketRow++) {
+            for (int bucketColumn = fromColumn; bucketColumn <= toColumn; bucketColumn++) {
+                for (int entity = buckets.get(bucket(bucketRow, bucketColumn), -1); entity >= 0; entity = next[entity]) {
+                    if (Math.abs(rows[entity] - row) <= radius
+                            && Math.abs(columns[entity] - column) <= radius) {
+                        if (size == found.length) {
+                            found = Arrays.copyOf(found, size * 2);
+                        }
+                        found[size++] = entity;
+                    }
+                }
+            }
+        }
+        final var result = Arrays.copyOf(found, size);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private String join(int from, int to) {
+        final var sb = new StringBuilder("[");
+        for (int entity = from; entity < to; entity++) {
+            if (entity > from) {
+                sb.append(',');
+            }
+            sb.append(fragments[entity]);
+        }
+        return sb.append(']').toString();
+    }
+
+    private String join(int[] entities, int from, int to) {
+        final var sb = new StringBuilder("[");
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                sb.append(',');
+            }
+            sb.append(fragments[entities[i]]);
+        }
+        return sb.append(']').toString();
+    }
+
+    private static long bucket(int bucketRow, int bucketColumn) {
+        return (long) bucketRow << 32 | bucketColumn;
+    }
+}
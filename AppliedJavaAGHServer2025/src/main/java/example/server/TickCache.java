@@ -0,0 +1,36 @@
+package example.server;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/**
+ * Value derived from the game state that is computed at most once per tick, however many
+ * requests ask for it. Hits are a single volatile read; only the first request of a tick takes the lock.
+ */
+final class TickCache<T> {
+    private record Entry<T>(long tick, T value) {
+    }
+
+    private final Lock lock = new ReentrantLock();
+    private volatile Entry<T> entry;
+
+    T get(long tick, LongFunction<T> compute) {
+        final var cached = entry;
+        if (cached != null && cached.tick() == tick) {
+            return cached.value();
+        }
+        lock.lock();
+        try {
+            final var current = entry;
+            if (current != null && current.tick() == tick) {
+                return current.value();
+            }
+            final var value = compute.apply(tick);
+            entry = new Entry<>(tick, value);
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package example.server;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One pass of the tick loop, from draining the commands to the last broadcast, without the sleep.
+ */
+@Name("example.Tick")
+@Label("Tick")
+@Category({"Dragon Cave", "Server"})
+@Description("Game tick from command drain to broadcast")
+@StackTrace(false)
+final class TickEvent extends Event {
+    @Label("Tick")
+    long tick;
+
+    @Label("Commands")
+    int commands;
+
+    @Label("Dragon Actions")
+    int dragonActions;
+}
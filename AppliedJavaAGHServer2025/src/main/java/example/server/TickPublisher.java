@@ -0,0 +1,85 @@
+package example.server;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Latest value of a monotonically increasing tick sequence, handed to any number of waiting
+ * connections without a shared mutex. A waiter registers its own thread before re-reading the
+ * sequence and parks; the publisher writes the value before unparking the registered threads.
+ * Either the waiter sees the new tick or the publisher sees the waiter, so a wakeup cannot be
+ * missed, and each connection wakes on its own instead of contending for one lock.
+ * <p>
+ * Waiters that fall behind skip straight to the latest tick.
+ */
+final class TickPublisher<T> {
+    record Tick<T>(long sequence, T value) {
+    }
+
+    private final Set<Thread> waiters = ConcurrentHashMap.newKeySet();
+    private volatile Tick<T> latest;
+
+    TickPublisher(T initial) {
+        this.latest = new Tick<>(0, initial);
+    }
+
+    Tick<T> latest() {
+        return latest;
+    }
+
+    /**
+     * Publishes the value under the next sequence number; called from a single thread.
+     */
+    long publish(T value) {
+        final long sequence = latest.sequence() + 1;
+        latest = new Tick<>(sequence, value);
+        for (final var waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+        return sequence;
+    }
+
+    /**
+     * Blocks until a tick newer than {@code seen} is published and returns the latest one.
+     */
+    Tick<T> await(long seen) throws InterruptedException {
+        return await(seen, Long.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #await(long)} but gives up after the timeout, returning null.
+     */
+    Tick<T> await(long seen, long timeoutNanos) throws InterruptedException {
+        var tick = latest;
+        if (tick.sequence() > seen) {
+            return tick;
+        }
+        final var thread = Thread.currentThread();
+        final long deadline = System.nanoTime() + Math.min(timeoutNanos, TimeUnit.DAYS.toNanos(365));
+        waiters.add(thread);
+        try {
+            while (true) {
+                tick = latest;
+                if (tick.sequence() > seen) {
+                    return tick;
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waiters.remove(thread);
+        }
+    }
+
+    int waiting() {
+        return waiters.size();
+    }
+}
@@ -0,0 +1,127 @@
+package example.server;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ring buffer of timed spans exported as Chrome trace event JSON, which Perfetto and
+ * {@code chrome://tracing} open directly. The ring is allocated up front and the oldest spans are
+ * overwritten once it is full, so memory stays bounded however long a capture runs.
+ * <p>
+ * Recording is lock-free and allocation-free: a writer claims a ticket with one atomic increment and
+ * fills the slot's parallel arrays. The slot's sequence number is cleared before the write and
+ * published after it, so the exporter skips slots that are being overwritten. Names and arguments
+ * must be strings that already exist, such as constants or player names.
+ */
+final class TickTracer {
+    private final int mask;
+    private final long[] starts;
+    private final long[] durations;
+    private final long[] threads;
+    private final String[] names;
+    private final String[] args;
+    private final AtomicLongArray sequences;
+    private final AtomicLong cursor = new AtomicLong();
+    private final long origin = System.nanoTime();
+    private volatile boolean enabled;
+    private volatile long deadline;
+
+    /**
+     * @param capacity spans kept, a power of two
+     */
+    TickTracer(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Trace capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.starts = new long[capacity];
+        this.durations = new long[capacity];
+        this.threads = new long[capacity];
+        this.names = new String[capacity];
+        this.args = new String[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * Forgets earlier spans and records for the given time.
+     */
+    void start(long nanos) {
+        enabled = false;
+        cursor.set(0);
+        for (int slot = 0; slot <= mask; slot++) {
+            sequences.set(slot, 0);
+        }
+        deadline = System.nanoTime() + nanos;
+        enabled = true;
+    }
+
+    void stop() {
+        enabled = false;
+    }
+
+    boolean enabled() {
+        if (enabled && System.nanoTime() - deadline > 0) {
+            enabled = false;
+        }
+        return enabled;
+    }
+
+    /**
+     * Records a span between two {@link System#nanoTime()} readings; {@code arg} may be null.
+     */
+    void span(String name, String arg, long startNanos, long endNanos) {
+        if (!enabled()) {
+            return;
+        }
+        final long ticket = cursor.getAndIncrement();
+        final int slot = (int) (ticket & mask);
+        sequences.set(slot, 0);
+        starts[slot] = startNanos;
+        durations[slot] = endNanos - startNanos;
+        threads[slot] = Thread.currentThread().threadId();
+        names[slot] = name;
+        args[slot] = arg;
+        sequences.setRelease(slot, ticket + 1);
+    }
+
+    /**
+     * The spans in the ring as a Chrome trace JSON object, oldest first.
+     */
+    String export() {
+        final long end = cursor.get();
+        final var sb = new StringBuilder("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        boolean first = true;
+        for (long ticket = Math.max(0, end - mask - 1); ticket < end; ticket++) {
+            final int slot = (int) (ticket & mask);
+            final long sequence = sequences.getAcquire(slot);
+            if (sequence != ticket + 1) {
+                continue;
+            }
+            final long start = starts[slot];
+            final long duration = durations[slot];
+            final long thread = threads[slot];
+            final String name = names[slot];
+            final String arg = args[slot];
+            VarHandle.acquireFence();
+            if (sequences.get(slot) != sequence) {
+                continue;
+            }
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append("{\"name\":\"").append(JsonStringEncoder.getInstance().quoteAsString(name))
+                    .append("\",\"ph\":\"X\",\"pid\":1,\"tid\":").append(thread)
+                    .append(",\"ts\":").append((start - origin) / 1e3)
+                    .append(",\"dur\":").append(duration / 1e3);
+            if (arg != null) {
+                sb.append(",\"args\":{\"player\":\"").append(JsonStringEncoder.getInstance().quoteAsString(arg)).append("\"}");
+            }
+            sb.append('}');
+        }
+        return sb.append("]}").toString();
+    }
+}
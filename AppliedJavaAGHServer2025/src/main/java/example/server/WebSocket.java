@@ -0,0 +1,144 @@
+package example.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Minimal server side of RFC 6455: the opening handshake and unfragmented frames, enough to push
+ * binary messages and answer pings and closes. {@code com.sun.net.httpserver} cannot upgrade a
+ * connection, so WebSocket clients connect to a plain socket served with these helpers.
+ */
+final class WebSocket {
+    static final int OPCODE_BINARY = 0x2;
+    static final int OPCODE_CLOSE = 0x8;
+    static final int OPCODE_PING = 0x9;
+    static final int OPCODE_PONG = 0xA;
+
+    private static final String GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final int MAX_REQUEST_BYTES = 8192;
+    private static final int MAX_CLIENT_PAYLOAD = 1 << 16;
+
+    record Message(int opcode, byte[] payload) {
+    }
+
+    private WebSocket() {
+    }
+
+    /**
+     * Reads the upgrade request and answers it; returns false (after a 400) for anything else.
+     */
+    static boolean handshake(InputStream in, OutputStream out) throws IOException {
+        String key = null;
+        final var request = readRequest(in);
+        final var lines = request.split("\r\n");
+        for (final var line : lines) {
+            final int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                key = line.substring(colon + 1).trim();
+            }
+        }
+        if (!lines[0].startsWith("GET ") || key == null) {
+            out.write("HTTP/1.1 400 Bad Request\r\nContent-Length: 0\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return false;
+        }
+        out.write(("HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + accept(key) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return true;
+    }
+
+    static String accept(String key) {
+        try {
+            final var sha1 = MessageDigest.getInstance("SHA-1");
+            return Base64.getEncoder().encodeToString(sha1.digest((key + GUID).getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+
+    /**
+     * Complete unmasked server frame, ready to be written to any number of connections.
+     */
+    static byte[] frame(int opcode, byte[] payload) {
+        final int header = payload.length < 126 ? 2 : payload.length <= 0xFFFF ? 4 : 10;
+        final var frame = new byte[header + payload.length];
+        frame[0] = (byte) (0x80 | opcode);
+        if (header == 2) {
+            frame[1] = (byte) payload.length;
+        } else if (header == 4) {
+            frame[1] = 126;
+            frame[2] = (byte) (payload.length >>> 8);
+            frame[3] = (byte) payload.length;
+        } else {
+            frame[1] = 127;
+            for (int i = 0; i < 8; i++) {
+                frame[2 + i] = (byte) ((long) payload.length >>> (56 - 8 * i));
+            }
+        }
+        System.arraycopy(payload, 0, frame, header, payload.length);
+        return frame;
+    }
+
+    /**
+     * Reads one client frame and unmasks its payload.
+     */
+    static Message read(InputStream in) throws IOException {
+        final int first = readByte(in);
+        final int second = readByte(in);
+        long length = second & 0x7F;
+        if (length == 126) {
+            length = (long) readByte(in) << 8 | readByte(in);
+        } else if (length == 127) {
+            length = 0;
+            for (int i = 0; i < 8; i++) {
+                length = length << 8 | readByte(in);
+            }
+        }
+        if (length > MAX_CLIENT_PAYLOAD) {
+            throw new IOException("Client frame too large: " + length);
+        }
+        final var mask = (second & 0x80) != 0 ? in.readNBytes(4) : null;
+        final var payload = in.readNBytes((int) length);
+        if (payload.length < length || (mask != null && mask.length < 4)) {
+            throw new EOFException();
+        }
+        if (mask != null) {
+            for (int i = 0; i < payload.length; i++) {
+                payload[i] ^= mask[i & 3];
+            }
+        }
+        return new Message(first & 0x0F, payload);
+    }
+
+    private static String readRequest(InputStream in) throws IOException {
+        final var request = new ByteArrayOutputStream();
+        int matched = 0;
+        while (matched < 4) {
+            final int b = readByte(in);
+            request.write(b);
+            matched = (b == '\r' && matched % 2 == 0) || (b == '\n' && matched % 2 == 1) ? matched + 1 : b == '\r' ? 1 : 0;
+            if (request.size() > MAX_REQUEST_BYTES) {
+                throw new IOException("Handshake request too large");
+            }
+        }
+        return request.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        final int b = in.read();
+        if (b < 0) {
+            throw new EOFException();
+        }
+        return b;
+    }
+}
@@ -47,6 +47,10 @@ public class ConfigValidator {
         if (config.known().isEmpty()) {
             return ValidationResult.failure("Configuration must contain at least one player");
         }
+
+        if (config.interestRadius() != null && config.interestRadius() < 1) {
+            return ValidationResult.failure("Interest radius must be positive");
+        }
         
         Set<String> names = new HashSet<>();
         Set<String> keys = new HashSet<>();
@@ -0,0 +1,35 @@
+package example.benchmark;
+
+import example.game.Game;
+import example.game.GameFixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Breadth-first distances from the exit over the whole reachable cave, run once per match to place players.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistancesBenchmark {
+    @Param({"60x160", "300x300", "1000x1000"})
+    public String size;
+
+    private Game game;
+
+    @Setup
+    public void setup() {
+        game = GameFixtures.game(GameFixtures.cave(size), 0, 0, 0);
+        game.generateExit();
+    }
+
+    @Benchmark
+    public Map<?, Integer> calculateDistancesFromExit() {
+        return game.calculateDistancesFromExit();
+    }
+}
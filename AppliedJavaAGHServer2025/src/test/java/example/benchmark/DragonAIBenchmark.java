@@ -0,0 +1,49 @@
+package example.benchmark;
+
+import example.domain.game.Location;
+import example.domain.game.Player;
+import example.domain.game.SimpleCave;
+import example.game.GameFixtures;
+import example.npc.DragonAI;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planning the moves of all three dragons against a growing number of humans to chase.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DragonAIBenchmark {
+    @Param({"300x300", "1000x1000"})
+    public String size;
+
+    @Param({"10", "1000", "10000"})
+    public int players;
+
+    private final DragonAI dragonAI = new DragonAI(new SplittableRandom(42L));
+    private Map<Player, Location> locations;
+    private SimpleCave cave;
+
+    @Setup
+    public void setup() {
+        cave = GameFixtures.cave(size);
+        final var game = GameFixtures.game(cave, players, 3, 0);
+        // insertion order, unlike Map.copyOf, so every fork sees the dragons in the same order
+        locations = Collections.unmodifiableMap(new LinkedHashMap<>(game.playerLocation()));
+    }
+
+    @Benchmark
+    public List<?> generateDragonActions() {
+        return dragonAI.generateDragonActions(locations, cave);
+    }
+}
@@ -0,0 +1,39 @@
+package example.benchmark;
+
+import example.domain.game.DrunkenCave;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation time of the single random walk against the multi-walker variants as the cave grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DrunkenCaveBenchmark {
+    @Param({"100x100", "300x300", "1000x1000"})
+    public String size;
+
+    @Param({"SINGLE_WALKER", "MULTI_WALKER", "PARALLEL"})
+    public DrunkenCave.Generation generation;
+
+    private int rows;
+    private int columns;
+
+    @Setup
+    public void setup() {
+        final var parts = size.split("x");
+        rows = Integer.parseInt(parts[0]);
+        columns = Integer.parseInt(parts[1]);
+    }
+
+    @Benchmark
+    public DrunkenCave generate() {
+        return new DrunkenCave(rows, columns, new SplittableRandom(42L), generation);
+    }
+}
@@ -0,0 +1,47 @@
+package example.benchmark;
+
+import example.domain.game.Player;
+import example.game.Game;
+import example.game.GameFixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Game#add} on a crowded board. Re-adding a player moves it, so occupancy stays where the
+ * setup put it and each call pays the retries of drawing a free cell at that occupancy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameAddBenchmark {
+    @Param({"200x200"})
+    public String size;
+
+    @Param({"0.1", "0.5", "0.9"})
+    public double occupancy;
+
+    private Game game;
+    private Player.HumanPlayer mover;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final var cave = GameFixtures.cave(size);
+        game = GameFixtures.game(cave, 0, 0, 0);
+        game.generateExit();
+        final int open = game.calculateDistancesFromExit().size();
+        final int entities = (int) (open * occupancy);
+        for (int i = 0; i < entities; i++) {
+            game.add(new Player.HumanPlayer("Player " + i), game::randomLocation);
+        }
+        mover = new Player.HumanPlayer("Player 0");
+    }
+
+    @Benchmark
+    public void add() {
+        game.add(mover, game::randomLocation);
+    }
+}
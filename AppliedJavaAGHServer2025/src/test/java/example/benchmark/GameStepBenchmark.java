@@ -0,0 +1,56 @@
+package example.benchmark;
+
+import example.domain.game.Action;
+import example.game.Game;
+import example.game.GameFixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link Game#step} with a command from every human, across player, dragon, item and cave size
+ * grids. The game is rebuilt for each iteration so long runs do not drift into a board of dead players.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameStepBenchmark {
+    private static final int ROUNDS = 64;
+
+    @Param({"300x300", "1000x1000"})
+    public String size;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int players;
+
+    @Param({"0", "3"})
+    public int dragons;
+
+    @Param({"0", "2000"})
+    public int items;
+
+    private List<List<Action>> commands;
+    private Game game;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void commands() {
+        commands = GameFixtures.commands(players, ROUNDS);
+    }
+
+    @Setup(Level.Iteration)
+    public void game() {
+        game = GameFixtures.game(GameFixtures.cave(size), players, dragons, items);
+        round = 0;
+    }
+
+    @Benchmark
+    public Object step() {
+        game.step(commands.get(round++ & (ROUNDS - 1)));
+        return game.snapshot();
+    }
+}
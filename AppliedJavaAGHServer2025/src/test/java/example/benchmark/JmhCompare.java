@@ -0,0 +1,88 @@
+package example.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files, such as a saved baseline and {@code target/jmh-result.json}:
+ * score, allocated bytes per operation and, for codecs counting a {@link Payload}, encoded bytes per
+ * operation for every benchmark and parameter combination in both. Scores only compare between runs
+ * on the same machine, so no baseline ships with the project; the baseline is a run kept before a change.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec@compare -Djmh.baseline=baseline.json
+ * </pre>
+ */
+public final class JmhCompare {
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    record Result(double score, String unit, double allocated, double payload) {
+    }
+
+    private JmhCompare() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: JmhCompare <current.json> <baseline.json>");
+            System.err.println("No baseline given: keep an earlier target/jmh-result.json and pass it with -Djmh.baseline=<file>");
+            System.exit(2);
+        }
+        final var baselinePath = Path.of(args[1]);
+        if (!Files.isRegularFile(baselinePath)) {
+            System.err.println("Baseline " + baselinePath.toAbsolutePath() + " not found; pass a saved jmh-result.json with -Djmh.baseline=<file>");
+            System.exit(2);
+        }
+        final var current = read(Path.of(args[0]));
+        final var baseline = read(baselinePath);
+        System.out.printf("%-80s %14s %14s %8s %14s %14s %14s%n", "benchmark", "baseline", "current", "change",
+                "B/op before", "B/op after", "payload B/op");
+        current.forEach((key, now) -> {
+            final var before = baseline.get(key);
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %8s %14s %14.0f %14.0f  %s%n", key, "-", now.score(), "new", "-",
+                        now.allocated(), now.payload(), now.unit());
+                return;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %+7.1f%% %14.0f %14.0f %14.0f  %s%n", key, before.score(), now.score(),
+                    change(before.score(), now.score()), before.allocated(), now.allocated(), now.payload(), now.unit());
+        });
+    }
+
+    static double change(double before, double now) {
+        return before == 0 ? 0 : (now - before) / before * 100;
+    }
+
+    /**
+     * Results keyed by benchmark name and its parameters, in file order.
+     */
+    static Map<String, Result> read(Path path) throws IOException {
+        final var results = new LinkedHashMap<String, Result>();
+        for (final JsonNode run : new ObjectMapper().readTree(path.toFile())) {
+            final var benchmark = run.get("benchmark").asText();
+            // class and method, without the package
+            final var key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1));
+            final var params = run.get("params");
+            if (params != null) {
+                final var sorted = new TreeMap<String, String>();
+                params.fields().forEachRemaining(entry -> sorted.put(entry.getKey(), entry.getValue().asText()));
+                key.append(sorted);
+            }
+            final var primary = run.get("primaryMetric");
+            final var secondary = run.path("secondaryMetrics");
+            final var allocation = secondary.path(ALLOCATION).path("score");
+            final var payloadBytes = secondary.path("payloadBytes").path("score");
+            final var encodings = secondary.path("encodings").path("score");
+            results.put(key.toString(), new Result(primary.get("score").asDouble(), primary.get("scoreUnit").asText(),
+                    allocation.isMissingNode() ? Double.NaN : allocation.asDouble(),
+                    payloadBytes.isMissingNode() || encodings.asDouble() == 0 ? Double.NaN : payloadBytes.asDouble() / encodings.asDouble()));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,21 @@
+package example.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Encoded size reported next to the timing of a codec benchmark. JMH sums event counters over the
+ * measurement, so both totals are kept and {@link JmhCompare} reports their ratio as payload bytes per op.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class Payload {
+    public long payloadBytes;
+    public long encodings;
+
+    public void add(int bytes) {
+        payloadBytes += bytes;
+        encodings++;
+    }
+}
@@ -0,0 +1,40 @@
+package example.benchmark;
+
+import example.game.Game;
+import example.game.GameFixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTML map of the status page, {@link Game#renderString()}, as the board fills up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderBenchmark {
+    @Param({"60x160", "300x300"})
+    public String size;
+
+    @Param({"10", "1000"})
+    public int players;
+
+    private Game game;
+
+    @Setup
+    public void setup() {
+        game = GameFixtures.game(GameFixtures.cave(size), players, 3, 0);
+        game.generateExit();
+        // one step publishes the snapshot the renderer reads and tops up gold and health
+        game.step(List.of());
+    }
+
+    @Benchmark
+    public String renderString() {
+        return game.renderString();
+    }
+}
@@ -0,0 +1,35 @@
+package example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import example.domain.Request;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing the request lines a client sends, as {@code Server} does for every line it reads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestDecodingBenchmark {
+    private static final String COMMAND = "{\"type\":\"C\",\"direction\":\"Up\"}";
+    private static final String AUTHORIZE = "{\"type\":\"A\",\"key\":\"1234\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Benchmark
+    public Request decodeCommand(Payload payload) throws Exception {
+        payload.add(COMMAND.length());
+        return objectMapper.readValue(COMMAND, Request.class);
+    }
+
+    @Benchmark
+    public Request decodeAuthorize(Payload payload) throws Exception {
+        payload.add(AUTHORIZE.length());
+        return objectMapper.readValue(AUTHORIZE, Request.class);
+    }
+}
@@ -0,0 +1,40 @@
+package example.benchmark;
+
+import example.domain.game.SimpleCave;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reference cellular automaton of {@link SimpleCave} with the packed bit-row variants.
+ * Every invocation generates a whole cave from the same seed, so all variants do identical work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimpleCaveBenchmark {
+    @Param({"60x160", "500x500", "2000x2000"})
+    public String size;
+
+    @Param({"REFERENCE", "PACKED", "PARALLEL"})
+    public SimpleCave.Generation generation;
+
+    private int rows;
+    private int columns;
+
+    @Setup
+    public void setup() {
+        final var parts = size.split("x");
+        rows = Integer.parseInt(parts[0]);
+        columns = Integer.parseInt(parts[1]);
+    }
+
+    @Benchmark
+    public SimpleCave generate() {
+        return new SimpleCave(rows, columns, new SplittableRandom(42L), generation);
+    }
+}
@@ -0,0 +1,97 @@
+package example.cave;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import example.domain.Response;
+import example.domain.game.GridCave;
+import example.domain.game.Item;
+import example.domain.game.SimpleCave;
+import example.game.Game;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+
+class CaveLibraryTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void mappedCaveMatchesWrittenCave() throws IOException {
+        final var cave = new SimpleCave(70, 130, new Random(1), SimpleCave.Generation.PACKED);
+        final var path = dir.resolve("cave.bin");
+
+        CaveLibrary.write(cave, path, false);
+        final var mapped = CaveLibrary.open(path);
+
+        Assertions.assertEquals(cave.rows(), mapped.rows());
+        Assertions.assertEquals(cave.columns(), mapped.columns());
+        Assertions.assertFalse(mapped.hasDistances());
+        for (int row = 0; row < cave.rows(); row++) {
+            for (int column = 0; column < cave.columns(); column++) {
+                Assertions.assertEquals(cave.rock(row, column), mapped.rock(row, column));
+            }
+        }
+    }
+
+    @Test
+    void storesDistancesFromSource() throws IOException {
+        final var cave = new GridCave(
+                "#####",
+                "#...#",
+                "###.#",
+                "#...#",
+                "#####");
+        final var path = dir.resolve("distances.bin");
+
+        CaveLibrary.write(cave, path, true);
+        final var mapped = CaveLibrary.open(path);
+        final var source = mapped.distanceSource();
+
+        Assertions.assertEquals(0, mapped.distance(source.row(), source.column()));
+        Assertions.assertEquals(-1, mapped.distance(0, 0));
+        Assertions.assertEquals(4, Math.abs(mapped.distance(1, 1) - mapped.distance(3, 1)));
+    }
+
+    @Test
+    void sentToClientsAsSimpleCave() throws IOException {
+        final var objectMapper = new ObjectMapper();
+        final var cave = new SimpleCave(10, 12, new Random(2), SimpleCave.Generation.PACKED);
+        final var path = dir.resolve("wire.bin");
+        CaveLibrary.write(cave, path, false);
+
+        final var json = objectMapper.writeValueAsString(new Response.StateCave(CaveLibrary.open(path)));
+
+        Assertions.assertEquals(objectMapper.writeValueAsString(new Response.StateCave(cave)), json);
+    }
+
+    @Test
+    void gameReadsStoredDistancesOfTheExit() throws IOException {
+        final var cave = new SimpleCave(70, 130, new Random(3), SimpleCave.Generation.PACKED);
+        final var path = dir.resolve("exit.bin");
+        CaveLibrary.write(cave, path, true);
+        final var mapped = CaveLibrary.open(path);
+
+        final var stored = new Game(mapped);
+        stored.generateExit();
+        final var searched = new Game(cave);
+        searched.add(new Item.Exit(0), mapped::distanceSource);
+
+        Assertions.assertEquals(mapped.distanceSource(), stored.getExitLocation());
+        Assertions.assertEquals(searched.calculateDistancesFromExit(), stored.calculateDistancesFromExit());
+        Assertions.assertEquals(searched.medianDistanceFromExit(), stored.medianDistanceFromExit());
+        Assertions.assertEquals(Set.copyOf(searched.getLocationsAtDistance(10)), Set.copyOf(stored.getLocationsAtDistance(10)));
+    }
+
+    @Test
+    void rejectsForeignFile() throws IOException {
+        final var path = dir.resolve("foreign.bin");
+        Files.write(path, new byte[64]);
+
+        Assertions.assertThrows(IOException.class, () -> CaveLibrary.open(path));
+    }
+}
@@ -0,0 +1,44 @@
+package example.cave;
+
+import example.domain.game.Direction;
+import example.domain.game.GridCave;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CaveTopologyTest {
+
+    @Test
+    void topologyLabelsComponentsAndOpenCells() {
+        final var rows = new String[]{
+                "#####",
+                "#..##",
+                "#####",
+                "#.#.#",
+                "#####",
+        };
+        final var topology = CaveTopology.compute(new GridCave(rows));
+
+        Assertions.assertEquals(3, topology.componentCount());
+        Assertions.assertEquals(4, topology.openCellCount());
+        Assertions.assertEquals(topology.component(1, 1), topology.component(1, 2));
+        Assertions.assertNotEquals(topology.component(3, 1), topology.component(3, 3));
+        Assertions.assertEquals(CaveTopology.ROCK, topology.component(0, 0));
+        Assertions.assertEquals(topology.component(1, 1), topology.largestComponent());
+    }
+
+    @Test
+    void topologyMasksOnlyOpenNeighboursInsideCave() {
+        final var topology = CaveTopology.compute(new GridCave(
+                "..#",
+                ".#.",
+                "..."));
+
+        Assertions.assertTrue(topology.canMove(topology.cell(0, 0), Direction.Right));
+        Assertions.assertTrue(topology.canMove(topology.cell(0, 0), Direction.Down));
+        Assertions.assertFalse(topology.canMove(topology.cell(0, 0), Direction.Up));
+        Assertions.assertFalse(topology.canMove(topology.cell(0, 0), Direction.Left));
+        Assertions.assertFalse(topology.canMove(topology.cell(0, 1), Direction.Right));
+        Assertions.assertFalse(topology.canMove(topology.cell(2, 1), Direction.Up));
+        Assertions.assertEquals(1 << Direction.Down.ordinal(), topology.moves(topology.cell(1, 2)));
+    }
+}
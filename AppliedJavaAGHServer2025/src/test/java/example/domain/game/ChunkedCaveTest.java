@@ -0,0 +1,70 @@
+package example.domain.game;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import example.domain.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChunkedCaveTest {
+
+    @Test
+    void sameSeedGivesSameCave() {
+        final var first = new ChunkedCave(300, 200, 42L, 16);
+        final var second = new ChunkedCave(300, 200, 42L, 2);
+
+        for (int row = 0; row < first.rows(); row++) {
+            for (int column = 0; column < first.columns(); column++) {
+                Assertions.assertEquals(first.rock(row, column), second.rock(row, column));
+            }
+        }
+    }
+
+    @Test
+    void residentChunksAreBounded() {
+        final var cave = new ChunkedCave(100_000, 100_000, 7L, 8);
+
+        for (int i = 0; i < 100; i++) {
+            cave.rock(1 + i * ChunkedCave.CHUNK_SIZE, 1 + i * ChunkedCave.CHUNK_SIZE);
+        }
+
+        Assertions.assertEquals(8, cave.residentChunks());
+    }
+
+    @Test
+    void borderIsRock() {
+        final var cave = new ChunkedCave(130, 70, 1L, 16);
+
+        for (int row = 0; row < cave.rows(); row++) {
+            Assertions.assertTrue(cave.rock(row, 0));
+            Assertions.assertTrue(cave.rock(row, cave.columns() - 1));
+        }
+        for (int column = 0; column < cave.columns(); column++) {
+            Assertions.assertTrue(cave.rock(0, column));
+            Assertions.assertTrue(cave.rock(cave.rows() - 1, column));
+        }
+    }
+
+    @Test
+    void chunkCentresAreOpen() {
+        final var cave = new ChunkedCave(1000, 1000, 3L, 16);
+        final int centre = ChunkedCave.CHUNK_SIZE / 2;
+
+        for (int chunk = 0; chunk < 10; chunk++) {
+            Assertions.assertFalse(cave.rock(chunk * ChunkedCave.CHUNK_SIZE + centre, centre));
+        }
+    }
+
+    @Test
+    void serializesSeedInsteadOfRocks() throws JsonProcessingException {
+        final var objectMapper = new ObjectMapper();
+        final var cave = new ChunkedCave(100_000, 100_000, 5L, 16);
+
+        final var json = objectMapper.writeValueAsString(new Response.StateCave(cave));
+        final var copy = (ChunkedCave) objectMapper.readValue(json, Response.StateCave.class).cave();
+
+        Assertions.assertEquals("{\"type\":\"C\",\"cave\":{\"type\":\"CC\",\"columns\":100000,\"rows\":100000,\"seed\":5}}", json);
+        Assertions.assertEquals(0, cave.residentChunks());
+        Assertions.assertEquals(cave.rock(50_000, 70_000), copy.rock(50_000, 70_000));
+    }
+}
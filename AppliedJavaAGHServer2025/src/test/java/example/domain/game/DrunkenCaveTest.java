@@ -0,0 +1,78 @@
+package example.domain.game;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+class DrunkenCaveTest {
+
+    @Test
+    void multiWalkerCaveIsOneComponent() {
+        for (final var generation : new DrunkenCave.Generation[]{DrunkenCave.Generation.MULTI_WALKER, DrunkenCave.Generation.PARALLEL}) {
+            for (long seed = 0; seed < 5; seed++) {
+                final var cave = new DrunkenCave(150, 400, new Random(seed), generation);
+                Assertions.assertEquals(open(cave), reachable(cave));
+            }
+        }
+    }
+
+    @Test
+    void multiWalkerCaveKeepsOpenRatio() {
+        final var cave = new DrunkenCave(100, 300, new Random(1), DrunkenCave.Generation.PARALLEL);
+
+        Assertions.assertEquals(100 * 300 * 8 / 10, open(cave));
+    }
+
+    @Test
+    void smallCaveIsCarvedCompletely() {
+        final var cave = new DrunkenCave(10, 10, new Random(1), DrunkenCave.Generation.MULTI_WALKER);
+
+        Assertions.assertEquals(8 * 8, open(cave));
+    }
+
+    @Test
+    void sameSeedGivesSameCave() {
+        final var first = new DrunkenCave(200, 700, new Random(3), DrunkenCave.Generation.PARALLEL);
+        final var second = new DrunkenCave(200, 700, new Random(3), DrunkenCave.Generation.PARALLEL);
+
+        Assertions.assertArrayEquals(first.rocks, second.rocks);
+    }
+
+    private static int open(DrunkenCave cave) {
+        int open = 0;
+        for (final var rock : cave.rocks) {
+            if (!rock) {
+                open++;
+            }
+        }
+        return open;
+    }
+
+    private static int reachable(DrunkenCave cave) {
+        final var columns = cave.columns();
+        int start = -1;
+        for (int i = 0; i < cave.rocks.length && start < 0; i++) {
+            if (!cave.rocks[i]) {
+                start = i;
+            }
+        }
+        final var seen = new boolean[cave.rocks.length];
+        final var queue = new ArrayDeque<Integer>();
+        queue.add(start);
+        seen[start] = true;
+        int count = 0;
+        while (!queue.isEmpty()) {
+            final int cell = queue.poll();
+            count++;
+            for (final int next : new int[]{cell - columns, cell + columns, cell - 1, cell + 1}) {
+                if (!cave.rocks[next] && !seen[next]) {
+                    seen[next] = true;
+                    queue.add(next);
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,27 @@
+package example.domain.game;
+
+/**
+ * Cave drawn as text for tests, {@code #} for rock and anything else open.
+ */
+public final class GridCave implements Cave {
+    private final String[] rows;
+
+    public GridCave(String... rows) {
+        this.rows = rows;
+    }
+
+    @Override
+    public boolean rock(int row, int column) {
+        return rows[row].charAt(column) == '#';
+    }
+
+    @Override
+    public int rows() {
+        return rows.length;
+    }
+
+    @Override
+    public int columns() {
+        return rows[0].length();
+    }
+}
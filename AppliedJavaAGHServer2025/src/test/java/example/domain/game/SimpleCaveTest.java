@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import example.domain.Response;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class SimpleCaveTest {
@@ -15,4 +17,19 @@ class SimpleCaveTest {
         final var str = objectMapper.writeValueAsString(new Response.StateCave(new SimpleCave(10, 10)));
         System.out.println(str);
     }
-}
\ No newline at end of file
+
+    @Test
+    void packedGenerationMatchesReference() {
+        final int[][] sizes = {{10, 10}, {2, 2}, {37, 130}, {100, 64}, {65, 129}, {200, 300}};
+        for (final var size : sizes) {
+            for (long seed = 0; seed < 5; seed++) {
+                final var reference = new SimpleCave(size[0], size[1], new Random(seed), SimpleCave.Generation.REFERENCE);
+                final var packed = new SimpleCave(size[0], size[1], new Random(seed), SimpleCave.Generation.PACKED);
+                final var parallel = new SimpleCave(size[0], size[1], new Random(seed), SimpleCave.Generation.PARALLEL);
+
+                assertArrayEquals(reference.rocks, packed.rocks);
+                assertArrayEquals(reference.rocks, parallel.rocks);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package example.game;
+
+import example.domain.game.Action;
+import example.domain.game.Cave;
+import example.domain.game.Direction;
+import example.domain.game.Item;
+import example.domain.game.Player;
+import example.domain.game.SimpleCave;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Seeded matches shared by the engine benchmarks, the performance gate and the memory budgets: a
+ * packed {@link SimpleCave}, humans named by index, at most three dragons (a dragon is identified by
+ * its size), extra gold on top of what the game keeps topped up and random commands of the humans.
+ * There is no exit, so no human ends the match or writes results in the middle of a measurement.
+ */
+public final class GameFixtures {
+    private GameFixtures() {
+    }
+
+    /**
+     * Cave of {@code rows x columns}, e.g. {@code "300x300"}.
+     */
+    public static SimpleCave cave(String size) {
+        final var parts = size.split("x");
+        return cave(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+    }
+
+    public static SimpleCave cave(int rows, int columns) {
+        return new SimpleCave(rows, columns, new SplittableRandom(42L), SimpleCave.Generation.PACKED);
+    }
+
+    public static Game game(Cave cave, int players, int dragons, int items) {
+        if (dragons > Player.Dragon.Size.values().length) {
+            throw new IllegalArgumentException("At most " + Player.Dragon.Size.values().length + " dragons");
+        }
+        final var game = new Game(cave, new MatchRandom(42L));
+        for (int i = 0; i < players; i++) {
+            game.add(human(i), game::randomLocation);
+        }
+        for (int i = 0; i < dragons; i++) {
+            game.add(new Player.Dragon(Player.Dragon.Size.values()[i]), game::randomLocation);
+        }
+        for (int i = 0; i < items; i++) {
+            game.add(new Item.Gold(1_000_000 + i, 10), game::randomLocation);
+        }
+        return game;
+    }
+
+    /**
+     * One random command per human.
+     */
+    public static List<Action> round(int players, RandomGenerator random) {
+        final var directions = Direction.values();
+        final var actions = new ArrayList<Action>(players);
+        for (int i = 0; i < players; i++) {
+            actions.add(new Action(human(i), directions[random.nextInt(directions.length)]));
+        }
+        return actions;
+    }
+
+    /**
+     * Rounds of commands, replayed in turn so every measurement sees the same moves.
+     */
+    public static List<List<Action>> commands(int players, int rounds) {
+        final var random = new SplittableRandom(7L);
+        final var result = new ArrayList<List<Action>>(rounds);
+        for (int round = 0; round < rounds; round++) {
+            result.add(round(players, random));
+        }
+        return result;
+    }
+
+    /**
+     * Places dead humans again at full health. Every command costs health, so without this a long
+     * run drifts into a board of dead players that neither fight nor loot.
+     */
+    public static void revive(Game game) {
+        final var dead = new ArrayList<Player.HumanPlayer>();
+        game.playerHealth().forEach((player, health) -> {
+            if (health == 0 && player instanceof Player.HumanPlayer human) {
+                dead.add(human);
+            }
+        });
+        dead.forEach(human -> game.add(human, game::randomLocation));
+    }
+
+    private static Player.HumanPlayer human(int index) {
+        return new Player.HumanPlayer("Player " + index);
+    }
+}
@@ -0,0 +1,136 @@
+package example.game;
+
+import example.domain.game.Action;
+import example.domain.game.Player;
+import example.npc.DragonAI;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * Performance gate for the tick engine, run with {@code mvn -Pperf test}: long matches through
+ * {@link DragonAI} and {@link Game#step} with seeded caves and commands, compared per phase with
+ * the p50/p99 budgets in {@code src/test/resources/perf-baseline.properties}. After a deliberate
+ * change in cost, {@code -Dperf.calibrate=true} rewrites the baseline from the current machine;
+ * single runs vary, so the stored values are best the highest of a few calibrations.
+ * <p>
+ * Absolute budgets depend on the machine, so a second check compares the engine with itself: four
+ * times the players may cost at most {@link #SCALING_LIMIT} times as much per tick, which fails for
+ * anything quadratic on any hardware.
+ */
+@Tag("perf")
+class GamePerformanceTest {
+    private static final Logger logger = LoggerFactory.getLogger(GamePerformanceTest.class);
+    private static final Path BASELINE = Path.of("src/test/resources/perf-baseline.properties");
+    private static final int SCALING_LIMIT = 8;
+
+    private final int ticks = Integer.getInteger("perf.ticks", 10_000);
+    private final int players = Integer.getInteger("perf.players", 1_000);
+    private final int size = Integer.getInteger("perf.size", 500);
+    private final double tolerance = Double.parseDouble(System.getProperty("perf.tolerance", "1.5"));
+
+    /**
+     * Step and dragon planning times of every measured tick, in nanoseconds.
+     */
+    private record Match(long[] step, long[] dragons) {
+    }
+
+    @Test
+    void longMatchStaysWithinBudgets() throws IOException {
+        final var match = play(players, ticks);
+        final var measured = new Properties();
+        measured.setProperty("step.p50.micros", Long.toString(percentile(match.step(), 0.50) / 1000));
+        measured.setProperty("step.p99.micros", Long.toString(percentile(match.step(), 0.99) / 1000));
+        measured.setProperty("dragons.p50.micros", Long.toString(percentile(match.dragons(), 0.50) / 1000));
+        measured.setProperty("dragons.p99.micros", Long.toString(percentile(match.dragons(), 0.99) / 1000));
+        logger.info("{} players, {} ticks, {}x{} cave: {}", players, ticks, size, size, measured);
+
+        if (Boolean.getBoolean("perf.calibrate")) {
+            try (OutputStream out = Files.newOutputStream(BASELINE)) {
+                measured.store(out, "Tick budgets of GamePerformanceTest: %d players, %d ticks, %dx%d cave"
+                        .formatted(players, ticks, size, size));
+            }
+            return;
+        }
+        final var baseline = new Properties();
+        try (InputStream in = GamePerformanceTest.class.getResourceAsStream("/perf-baseline.properties")) {
+            Assertions.assertNotNull(in, "No baseline; run once with -Dperf.calibrate=true");
+            baseline.load(in);
+        }
+        for (final var name : measured.stringPropertyNames()) {
+            final long budget = Math.max(1, (long) (Long.parseLong(baseline.getProperty(name)) * tolerance));
+            final long actual = Long.parseLong(measured.getProperty(name));
+            Assertions.assertTrue(actual <= budget,
+                    "%s is %d µs, budget %d µs (baseline %s x %.2f)".formatted(name, actual, budget, baseline.getProperty(name), tolerance));
+        }
+    }
+
+    @Test
+    void tickCostGrowsLinearlyWithPlayers() {
+        final int scalingTicks = Math.max(200, ticks / 20);
+        final int small = Math.max(50, players / 4);
+        final long smallTick = percentile(total(play(small, scalingTicks)), 0.5);
+        final long largeTick = percentile(total(play(small * 4, scalingTicks)), 0.5);
+
+        Assertions.assertTrue(largeTick <= smallTick * SCALING_LIMIT,
+                "%d players take %d µs per tick, %d players %d µs".formatted(small, smallTick / 1000, small * 4, largeTick / 1000));
+    }
+
+    /**
+     * Plays a match of humans making seeded random moves against the three dragons; the first tenth
+     * of the ticks warms up and is not measured. Every command costs health, so humans who die are
+     * placed again at full health between measured ticks and the board keeps fighting and looting.
+     */
+    private Match play(int humans, int length) {
+        final var game = GameFixtures.game(GameFixtures.cave(size, size), humans, Player.Dragon.Size.values().length, 0);
+        final var dragonAI = new DragonAI(game.random().dragons());
+        final var random = new SplittableRandom(7L);
+        final int warmup = length / 10;
+        final var step = new long[length - warmup];
+        final var dragons = new long[length - warmup];
+        final var actions = new ArrayList<Action>(humans + 3);
+        for (int tick = 0; tick < length; tick++) {
+            actions.clear();
+            actions.addAll(GameFixtures.round(humans, random));
+            final long start = System.nanoTime();
+            final List<Action> dragonActions = dragonAI.generateDragonActions(game.playerLocation(), game.cave());
+            final long planned = System.nanoTime();
+            actions.addAll(dragonActions);
+            game.step(actions);
+            final long stepped = System.nanoTime();
+            if (tick >= warmup) {
+                dragons[tick - warmup] = planned - start;
+                step[tick - warmup] = stepped - planned;
+            }
+            GameFixtures.revive(game);
+        }
+        return new Match(step, dragons);
+    }
+
+    private static long[] total(Match match) {
+        final var total = new long[match.step().length];
+        for (int i = 0; i < total.length; i++) {
+            total[i] = match.step()[i] + match.dragons()[i];
+        }
+        return total;
+    }
+
+    private static long percentile(long[] values, double quantile) {
+        final var sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+}
@@ -1,12 +1,17 @@
 package example.game;
 
 import example.domain.game.*;
+import example.npc.DragonAI;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
 
 public class GameTest {
     private static class EmptyCave implements Cave {
@@ -297,4 +302,172 @@ public class GameTest {
         Assertions.assertTrue(game.health(player2) >= 0);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void itemsSpawnOnlyInExitComponent() {
+        final var cave = new GridCave(
+                "#######",
+                "#...#.#",
+                "#...###",
+                "#######");
+        final var game = new Game(cave);
+
+        game.generateExit();
+        for (int i = 0; i < 100; i++) {
+            final var location = game.randomLocation();
+            Assertions.assertTrue(game.reachable(game.getExitLocation(), location));
+        }
+        Assertions.assertFalse(game.reachable(game.getExitLocation(), new Location(1, 5)));
+    }
+
+    @Test
+    public void itemGenerationStopsWhenCaveIsFull() {
+        final var cave = new GridCave(
+                "#####",
+                "#...#",
+                "#####");
+        final var game = new Game(cave);
+
+        final var player1 = new Player.HumanPlayer("1");
+        game.add(player1, () -> new Location(1, 1));
+        game.step(List.of(new Action(player1, Direction.Right)));
+
+        Assertions.assertEquals(2, game.itemLocation().size());
+    }
+
+    @Test
+    public void stepPublishesSnapshotSharingUnchangedParts() {
+        final var cave = new GridCave(
+                "#####",
+                "#...#",
+                "#####");
+        final var game = new Game(cave);
+
+        final var player1 = new Player.HumanPlayer("1");
+        game.add(player1, () -> new Location(1, 1));
+        game.step(List.of(new Action(player1, Direction.Up)));
+        final var first = game.snapshot();
+        game.step(List.of());
+        final var second = game.snapshot();
+
+        Assertions.assertEquals(1, first.tick());
+        Assertions.assertEquals(2, second.tick());
+        Assertions.assertEquals(Map.of(player1, 94), first.playerHealths());
+        Assertions.assertSame(first.itemLocations(), second.itemLocations());
+        Assertions.assertSame(first.playerLocations(), second.playerLocations());
+        Assertions.assertSame(first.playerHealths(), second.playerHealths());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> second.playerHealths().put(player1, 0));
+    }
+
+    @Test
+    public void publishShowsPlacedPlayersInInsertionOrderBeforeTheFirstTick() {
+        final var cave = new GridCave(
+                "########",
+                "#......#",
+                "########");
+        final var game = new Game(cave);
+        final var players = new ArrayList<Player.HumanPlayer>();
+        for (int i = 0; i < 6; i++) {
+            final var player = new Player.HumanPlayer("player" + (5 - i));
+            final var location = new Location(1, i + 1);
+            players.add(player);
+            game.add(player, () -> location);
+        }
+
+        game.publish();
+        final var snapshot = game.snapshot();
+
+        Assertions.assertEquals(0, snapshot.tick());
+        Assertions.assertEquals(6, snapshot.playerLocations().size());
+        Assertions.assertEquals(players, List.copyOf(snapshot.playerHealths().keySet()));
+        Assertions.assertEquals(players, List.copyOf(snapshot.playerGolds().keySet()));
+        Assertions.assertEquals(players, List.copyOf(snapshot.playerMoves().keySet()));
+    }
+
+    @Test
+    public void fairStartFallsBackOnceTheDistanceIsFull() {
+        final var cave = new GridCave(
+                ".......",
+                ".......",
+                ".......");
+        final var game = new Game(cave);
+        game.generateExit();
+        final int atDistanceOne = game.getLocationsAtDistance(1).size();
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < atDistanceOne + 5; i++) {
+                game.add(new Player.HumanPlayer("Player " + i), game.fairStartLocationSupplier(1));
+            }
+        });
+        Assertions.assertEquals(atDistanceOne + 5, game.playerLocation().size());
+        Assertions.assertEquals(atDistanceOne + 5, Set.copyOf(game.playerLocation().values()).size());
+    }
+
+    @Test
+    public void fairStartPlacesPlayersAtTheDistance() {
+        final var cave = new GridCave(
+                ".........",
+                ".........",
+                ".........",
+                ".........",
+                ".........");
+        final var game = new Game(cave, new MatchRandom(5L));
+        game.generateExit();
+        final var distances = game.calculateDistancesFromExit();
+
+        for (int i = 0; i < 2; i++) {
+            game.add(new Player.HumanPlayer("Player " + i), game.fairStartLocationSupplier(2));
+        }
+
+        for (final var location : game.playerLocation().values()) {
+            Assertions.assertEquals(2, distances.get(location));
+        }
+    }
+
+    @Test
+    public void sameSeedReplaysIdenticalMatch() {
+        final var match = play(42L);
+
+        Assertions.assertEquals(match, play(42L));
+        Assertions.assertNotEquals(match, play(43L));
+    }
+
+    @Test
+    public void matchStreamsAreIndependent() {
+        final var quiet = new MatchRandom(7L);
+        final var busy = new MatchRandom(7L);
+        busy.spawns().nextLong();
+        busy.cave().nextLong();
+
+        Assertions.assertEquals(quiet.values().nextLong(), busy.values().nextLong());
+        Assertions.assertEquals(quiet.dragons().nextLong(), busy.dragons().nextLong());
+    }
+
+    /**
+     * Snapshots of a match on a cave carved from the seed, with dragons and scripted human moves.
+     */
+    private static List<GameSnapshot> play(long seed) {
+        final var random = new MatchRandom(seed);
+        final var game = new Game(new DrunkenCave(30, 40, random.cave(), DrunkenCave.Generation.MULTI_WALKER), random);
+        final var dragonAI = new DragonAI(random.dragons());
+        final var humans = new ArrayList<Player.HumanPlayer>();
+        for (int i = 0; i < 20; i++) {
+            humans.add(new Player.HumanPlayer("Player " + i));
+            game.add(humans.getLast(), game::randomLocation);
+        }
+        for (final var size : Player.Dragon.Size.values()) {
+            game.add(new Player.Dragon(size), game::randomLocation);
+        }
+
+        final var moves = new SplittableRandom(1L);
+        final var snapshots = new ArrayList<GameSnapshot>();
+        for (int tick = 0; tick < 200; tick++) {
+            final var actions = new ArrayList<>(dragonAI.generateDragonActions(game.playerLocation(), game.cave()));
+            for (final var human : humans) {
+                actions.add(new Action(human, Direction.values()[moves.nextInt(Direction.values().length)]));
+            }
+            game.step(actions);
+            snapshots.add(game.snapshot());
+        }
+        return snapshots;
+    }
+}
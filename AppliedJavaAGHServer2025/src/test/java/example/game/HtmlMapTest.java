@@ -0,0 +1,68 @@
+package example.game;
+
+import example.domain.Response;
+import example.domain.game.Cave;
+import example.domain.game.Item;
+import example.domain.game.Location;
+import example.domain.game.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class HtmlMapTest {
+    private static final String CELL = "<span style='display:inline-block; width:25px; height:25px; text-align:center; vertical-align:middle;'>%s</span>";
+
+    @Test
+    void overlaysEntitiesOnRockLayer() {
+        final var map = new HtmlMap(new Cave() {
+            @Override
+            public boolean rock(int row, int column) {
+                return column == 0;
+            }
+
+            @Override
+            public int rows() {
+                return 2;
+            }
+
+            @Override
+            public int columns() {
+                return 3;
+            }
+        });
+
+        final var rendered = map.render(
+                List.of(new Response.StateLocations.ItemLocation(new Item.Gold(0, 10), new Location(0, 1)),
+                        new Response.StateLocations.ItemLocation(new Item.Health(1, 10), new Location(1, 2))),
+                List.of(new Response.StateLocations.PlayerLocation(new Player.HumanPlayer("alice"), new Location(1, 2))));
+
+        final var expected = CELL.formatted("🪨") + CELL.formatted("💰") + CELL.formatted("&nbsp;") + "<br>"
+                + CELL.formatted("🪨") + CELL.formatted("&nbsp;") + CELL.formatted("A") + "<br>";
+        Assertions.assertEquals(expected, rendered);
+    }
+
+    @Test
+    void refusesCavesBeyondTheCap() {
+        final var cave = new Cave() {
+            @Override
+            public boolean rock(int row, int column) {
+                return false;
+            }
+
+            @Override
+            public int rows() {
+                return 1024;
+            }
+
+            @Override
+            public int columns() {
+                return HtmlMap.MAX_CELLS / 1024 + 1;
+            }
+        };
+
+        Assertions.assertFalse(HtmlMap.supports(cave));
+        Assertions.assertFalse(new Game(cave).rendersHtml());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HtmlMap(cave));
+    }
+}
@@ -0,0 +1,53 @@
+package example.game;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+class LongIntMapTest {
+
+    @Test
+    void countsDropKeysAtZero() {
+        final var map = new LongIntMap();
+
+        map.addTo(7, 1);
+        map.addTo(7, 1);
+        map.addTo(7, -1);
+        Assertions.assertEquals(1, map.get(7, 0));
+
+        map.addTo(7, -1);
+        Assertions.assertFalse(map.containsKey(7));
+        Assertions.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        final var map = new LongIntMap(2);
+        final var reference = new HashMap<Long, Integer>();
+        final var random = new SplittableRandom(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            // small key range so probe runs collide and removals shift entries back
+            final long key = random.nextInt(512) * 1024L;
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(reference.remove(key) != null, map.remove(key));
+            } else {
+                map.put(key, i);
+                reference.put(key, i);
+            }
+        }
+
+        Assertions.assertEquals(reference.size(), map.size());
+        reference.forEach((key, value) -> Assertions.assertEquals(value, map.get(key, -1)));
+        int visited = 0;
+        for (int slot = 0; slot < map.capacity(); slot++) {
+            if (map.used(slot)) {
+                Assertions.assertEquals(reference.get(map.key(slot)), map.value(slot));
+                visited++;
+            }
+        }
+        Assertions.assertEquals(reference.size(), visited);
+    }
+}
@@ -0,0 +1,40 @@
+package example.game;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+class LongObjectMapTest {
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        final var map = new LongObjectMap<String>(2);
+        final var reference = new HashMap<Long, String>();
+        final var random = new SplittableRandom(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            // small key range so probe runs collide and removals shift entries back
+            final long key = random.nextInt(512) * 1024L;
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(reference.remove(key) != null, map.remove(key));
+            } else {
+                map.put(key, "v" + i);
+                reference.put(key, "v" + i);
+            }
+        }
+
+        Assertions.assertEquals(reference.size(), map.size());
+        reference.forEach((key, value) -> Assertions.assertEquals(value, map.get(key)));
+        Assertions.assertNull(map.get(513L));
+        int visited = 0;
+        for (int slot = 0; slot < map.capacity(); slot++) {
+            if (map.used(slot)) {
+                Assertions.assertEquals(reference.get(map.key(slot)), map.value(slot));
+                visited++;
+            }
+        }
+        Assertions.assertEquals(reference.size(), visited);
+    }
+}
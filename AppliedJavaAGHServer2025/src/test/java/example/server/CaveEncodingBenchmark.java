@@ -0,0 +1,56 @@
+package example.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import example.benchmark.Payload;
+import example.domain.Response;
+import example.domain.game.SimpleCave;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cave sent once per connection: Jackson's {@link Response.StateCave} against the digit string of
+ * the SSE spectator page and the bitset of the WebSocket live map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CaveEncodingBenchmark {
+    @Param({"60x160", "300x300", "1000x1000"})
+    public String size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleCave cave;
+
+    @Setup
+    public void setup() {
+        final var parts = size.split("x");
+        cave = new SimpleCave(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                new SplittableRandom(42L), SimpleCave.Generation.PACKED);
+    }
+
+    @Benchmark
+    public byte[] jacksonStateCave(Payload payload) throws Exception {
+        final var bytes = objectMapper.writeValueAsBytes(new Response.StateCave(cave));
+        payload.add(bytes.length);
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] spectatorCave(Payload payload) {
+        final var bytes = SpectatorFrames.cave(cave);
+        payload.add(bytes.length);
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] liveMapCave(Payload payload) {
+        final var bytes = LiveMapFrames.cave(cave);
+        payload.add(bytes.length);
+        return bytes;
+    }
+}
@@ -0,0 +1,73 @@
+package example.server;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class HeavyRequestLimitTest {
+
+    @Test
+    void rejectsRequestsBeyondTheCapAndCountsThem() throws Exception {
+        final var metrics = new HttpMetrics();
+        final var limit = new HeavyRequestLimit(1, 50);
+        final var entered = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        final var context = server.createContext("/slow", exchange -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        context.getFilters().add(metrics.timed("/slow"));
+        context.getFilters().add(limit);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        try (final var client = HttpClient.newHttpClient()) {
+            final var request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getAddress().getPort() + "/slow")).build();
+            final var first = client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+            Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            final var second = client.send(request, HttpResponse.BodyHandlers.discarding());
+            release.countDown();
+
+            Assertions.assertEquals(503, second.statusCode());
+            Assertions.assertEquals("1", second.headers().firstValue("Retry-After").orElseThrow());
+            Assertions.assertEquals(200, first.get(5, TimeUnit.SECONDS).statusCode());
+            Assertions.assertEquals(1, limit.rejected());
+            // the filter counts a request once its handler returns, which may be after the client saw the response
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (metrics.requests("/slow") < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            Assertions.assertEquals(2, metrics.requests("/slow"));
+            Assertions.assertEquals(1, metrics.failures("/slow"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void rendersPerEndpointSamples() {
+        final var metrics = new HttpMetrics();
+        metrics.timed("/state");
+        final var sb = new StringBuilder();
+
+        metrics.render(sb);
+
+        Assertions.assertTrue(sb.toString().contains("http_requests_total{endpoint=\"/state\"} 0\n"));
+    }
+}
@@ -0,0 +1,53 @@
+package example.server;
+
+import example.domain.game.Action;
+import example.domain.game.Direction;
+import example.domain.game.Player;
+import example.domain.game.SimpleCave;
+import example.game.Game;
+import jdk.jfr.EventType;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+class JfrControlTest {
+
+    @Test
+    void recordsGameEventsUntilStopped() throws Exception {
+        final var jfr = new JfrControl();
+        Assertions.assertNull(jfr.dump());
+        Assertions.assertTrue(jfr.start());
+        Assertions.assertFalse(jfr.start());
+
+        final var game = new Game(new SimpleCave(10, 10));
+        final var player = new Player.HumanPlayer("Alice");
+        game.add(player, game::randomLocation);
+        game.step(List.of(new Action(player, Direction.Up)));
+        final var tick = new TickEvent();
+        tick.tick = 1;
+        tick.commit();
+
+        Assertions.assertTrue(jfr.stop());
+        Assertions.assertFalse(jfr.stop());
+        Assertions.assertEquals("STOPPED", jfr.state());
+        final var file = Files.createTempFile("dragon-cave", ".jfr");
+        try {
+            try (final var in = jfr.dump()) {
+                Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            final var names = RecordingFile.readAllEvents(file).stream()
+                    .map(RecordedEvent::getEventType)
+                    .map(EventType::getName)
+                    .toList();
+            Assertions.assertTrue(names.contains("example.Tick"));
+            Assertions.assertEquals(3, names.stream().filter("example.StepPhase"::equals).count());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
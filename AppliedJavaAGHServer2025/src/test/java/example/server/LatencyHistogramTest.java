@@ -0,0 +1,51 @@
+package example.server;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsCoverValuesWithinAnEighth() {
+        for (long value : new long[]{0, 1, 7, 8, 15, 16, 1000, 123_456, 1_000_000_007L, Long.MAX_VALUE}) {
+            final int index = LatencyHistogram.index(value);
+            Assertions.assertTrue(LatencyHistogram.lowerBound(index) <= value, "lower bound of " + value);
+            if (value < Long.MAX_VALUE / 2) {
+                Assertions.assertTrue(value < LatencyHistogram.lowerBound(index + 1), "upper bound of " + value);
+                Assertions.assertTrue(LatencyHistogram.lowerBound(index + 1) - LatencyHistogram.lowerBound(index)
+                        <= Math.max(1, value / LatencyHistogram.SUB_BUCKETS), "width at " + value);
+            }
+        }
+    }
+
+    @Test
+    void quantilesComeFromTheRecordedDistribution() {
+        final var histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        Assertions.assertEquals(1000, histogram.count());
+        Assertions.assertEquals(500_500_000L, histogram.sum());
+        Assertions.assertEquals(500_000, histogram.valueAt(0.5), 500_000 / 8.0);
+        Assertions.assertEquals(990_000, histogram.valueAt(0.99), 990_000 / 8.0);
+        Assertions.assertEquals(0, new LatencyHistogram().valueAt(0.99));
+    }
+
+    @Test
+    void rendersCumulativeBucketsInSeconds() {
+        final var histogram = new LatencyHistogram();
+        histogram.record(500);
+        histogram.record(3_000_000);
+        final var sb = new StringBuilder();
+
+        histogram.render(sb, "tick_seconds", "Tick");
+
+        final var text = sb.toString();
+        Assertions.assertTrue(text.contains("# TYPE tick_seconds histogram\n"));
+        Assertions.assertTrue(text.contains("tick_seconds_bucket{le=\"1.024E-6\"} 1\n"), text);
+        Assertions.assertTrue(text.contains("tick_seconds_bucket{le=\"0.004194304\"} 2\n"), text);
+        Assertions.assertTrue(text.contains("tick_seconds_bucket{le=\"+Inf\"} 2\n"));
+        Assertions.assertTrue(text.contains("tick_seconds_count 2\n"));
+    }
+}
@@ -0,0 +1,141 @@
+package example.server;
+
+import example.domain.Response;
+import example.domain.game.Cave;
+import example.domain.game.Item;
+import example.domain.game.Location;
+import example.domain.game.Player;
+import example.game.GameSnapshot;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+class LiveMapSocketServerTest {
+    private final Player.HumanPlayer maks = new Player.HumanPlayer("maks");
+    private final Item.Gold gold = new Item.Gold(0, 10);
+
+    @Test
+    void handshakeAcceptKeyMatchesRfcExample() {
+        Assertions.assertEquals("s3pPLMBiTxaQ9kYGzzhZRbK+xOo=", WebSocket.accept("dGhlIHNhbXBsZSBub25jZQ=="));
+    }
+
+    @Test
+    void deltaCarriesOnlyChangedEntities() {
+        final var frames = new LiveMapFrames();
+        frames.update(snapshot(1, new Location(1, 1), true));
+        frames.update(snapshot(2, new Location(1, 2), false));
+
+        final var delta = payload(frames.delta());
+        Assertions.assertEquals(LiveMapFrames.DELTA, delta.get());
+        Assertions.assertEquals(2, delta.getLong());
+        Assertions.assertEquals(2, delta.getInt());
+        final var rows = List.of(entityRow(delta), entityRow(delta));
+        Assertions.assertTrue(rows.contains(1), "moved player");
+        Assertions.assertTrue(rows.contains(-1), "removed gold");
+
+        final var keyframe = payload(frames.keyframe());
+        Assertions.assertEquals(LiveMapFrames.KEYFRAME, keyframe.get());
+        Assertions.assertEquals(2, keyframe.getLong());
+        Assertions.assertEquals(1, keyframe.getInt());
+    }
+
+    @Test
+    void connectionReceivesCaveThenKeyframeThenDeltas() throws Exception {
+        final var frames = new LiveMapFrames();
+        final var cave = LiveMapFrames.cave(new Cave() {
+            @Override
+            public boolean rock(int row, int column) {
+                return row != 1;
+            }
+
+            @Override
+            public int rows() {
+                return 3;
+            }
+
+            @Override
+            public int columns() {
+                return 5;
+            }
+        });
+        try (final var server = new LiveMapSocketServer(0, () -> cave, 4);
+             final var socket = new Socket("localhost", server.port())) {
+            server.start();
+            socket.getOutputStream().write(("GET / HTTP/1.1\r\nHost: localhost\r\nUpgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\nSec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+                    + "Sec-WebSocket-Version: 13\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            final var in = new DataInputStream(socket.getInputStream());
+            final var response = readResponse(in);
+            Assertions.assertTrue(response.startsWith("HTTP/1.1 101"));
+            Assertions.assertTrue(response.contains("s3pPLMBiTxaQ9kYGzzhZRbK+xOo="));
+
+            Assertions.assertEquals(LiveMapFrames.CAVE, readMessage(in).get());
+            while (server.connections() == 0) {
+                Thread.sleep(5);
+            }
+
+            frames.update(snapshot(1, new Location(1, 1), true));
+            server.publish(frames.delta(), frames::keyframe);
+            frames.update(snapshot(2, new Location(1, 2), true));
+            server.publish(frames.delta(), frames::keyframe);
+
+            final var keyframe = readMessage(in);
+            Assertions.assertEquals(LiveMapFrames.KEYFRAME, keyframe.get());
+            Assertions.assertEquals(1, keyframe.getLong());
+            Assertions.assertEquals(2, keyframe.getInt());
+            final var delta = readMessage(in);
+            Assertions.assertEquals(LiveMapFrames.DELTA, delta.get());
+            Assertions.assertEquals(2, delta.getLong());
+            Assertions.assertEquals(1, delta.getInt());
+        }
+    }
+
+    private GameSnapshot snapshot(long tick, Location player, boolean withGold) {
+        return new GameSnapshot(tick,
+                withGold ? List.of(new Response.StateLocations.ItemLocation(gold, new Location(1, 3))) : List.of(),
+                List.of(new Response.StateLocations.PlayerLocation(maks, player)),
+                Map.of(), Map.of(), Map.of());
+    }
+
+    private static int entityRow(ByteBuffer buffer) {
+        buffer.getInt();
+        final int row = buffer.getInt();
+        buffer.getInt();
+        buffer.getChar();
+        return row;
+    }
+
+    private static ByteBuffer payload(byte[] frame) {
+        final int length = frame[1] & 0x7F;
+        final int header = length < 126 ? 2 : length == 126 ? 4 : 10;
+        return ByteBuffer.wrap(frame, header, frame.length - header);
+    }
+
+    private static ByteBuffer readMessage(DataInputStream in) throws IOException {
+        Assertions.assertEquals(0x82, in.readUnsignedByte());
+        long length = in.readUnsignedByte();
+        if (length == 126) {
+            length = in.readUnsignedShort();
+        } else if (length == 127) {
+            length = in.readLong();
+        }
+        final var payload = new byte[(int) length];
+        in.readFully(payload);
+        return ByteBuffer.wrap(payload);
+    }
+
+    private static String readResponse(DataInputStream in) throws IOException {
+        final var sb = new StringBuilder();
+        while (!sb.toString().endsWith("\r\n\r\n")) {
+            sb.append((char) in.readUnsignedByte());
+        }
+        return sb.toString();
+    }
+}
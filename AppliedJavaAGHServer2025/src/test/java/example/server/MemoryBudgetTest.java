@@ -0,0 +1,142 @@
+package example.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import example.domain.game.DrunkenCave;
+import example.game.GameFixtures;
+import example.game.GameSnapshot;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Memory budgets of a match, from {@code src/test/resources/memory-budget.properties}: bytes
+ * allocated per player in a steady-state tick, and heap retained per player (the game with its
+ * published snapshot and client frames, as {@code Server} keeps them) and per cave cell (the game
+ * with the status page it has rendered). Retained sizes are the difference in heap used after a full
+ * collection between two population sizes, so fixed costs cancel out. The retained sizes are logged
+ * with how many players and cells the container heap would hold.
+ * <p>
+ * Allocation is counted per thread and runs in every build. Retained sizes depend on
+ * {@code System.gc()} actually collecting, which flags like {@code -XX:+DisableExplicitGC}, concurrent
+ * collectors or a loaded host defeat, so those run with the {@code perf} profile.
+ */
+class MemoryBudgetTest {
+    private static final Logger logger = LoggerFactory.getLogger(MemoryBudgetTest.class);
+    private static final long CONTAINER_HEAP = 450L * 1024 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Dead humans are placed again between ticks, outside the count, so every tick fights and loots.
+     */
+    @Test
+    void steadyStateTickAllocationPerPlayer() throws IOException {
+        final int players = 1_000;
+        final var game = GameFixtures.game(GameFixtures.cave(300, 300), players, 0, 0);
+        final var commands = GameFixtures.commands(players, 64);
+        final var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int tick = 0; tick < 300; tick++) {
+            game.step(commands.get(tick % commands.size()));
+            GameFixtures.revive(game);
+        }
+
+        final int ticks = 500;
+        long allocated = 0;
+        for (int tick = 0; tick < ticks; tick++) {
+            final long before = threads.getCurrentThreadAllocatedBytes();
+            game.step(commands.get(tick % commands.size()));
+            allocated += threads.getCurrentThreadAllocatedBytes() - before;
+            GameFixtures.revive(game);
+        }
+        final long perPlayer = allocated / ticks / players;
+
+        logger.info("Allocated per player per tick: {} B", perPlayer);
+        assertWithin("tick.allocated.bytes.per.player", perPlayer);
+    }
+
+    @Test
+    @Tag("perf")
+    void retainedHeapPerPlayer() throws IOException {
+        final var cave = GameFixtures.cave(400, 400);
+        final long perPlayer = retainedPerUnit(players -> {
+            final var game = GameFixtures.game(cave, players, 0, 0);
+            game.step(GameFixtures.commands(players, 1).getFirst());
+            final var snapshot = game.snapshot();
+            return List.of(game, snapshot, encode(snapshot));
+        }, 2_000, 10_000);
+
+        logger.info("Retained per player: {} B, {} players fit in {} MB",
+                perPlayer, CONTAINER_HEAP / Math.max(1, perPlayer), CONTAINER_HEAP >> 20);
+        assertWithin("player.retained.bytes", perPlayer);
+    }
+
+    @Test
+    @Tag("perf")
+    void retainedHeapPerCaveCell() throws IOException {
+        final long perCell = retainedPerUnit(cells -> {
+            final int side = (int) Math.sqrt(cells);
+            final var cave = new DrunkenCave(side, side, new SplittableRandom(42L), DrunkenCave.Generation.MULTI_WALKER);
+            final var game = GameFixtures.game(cave, 0, 0, 0);
+            // the status page keeps what it renders for the rest of the match
+            game.renderString();
+            return game;
+        }, 200 * 200, 500 * 500);
+
+        logger.info("Retained per cave cell with its game and status page: {} B, {} cells fit in {} MB",
+                perCell, CONTAINER_HEAP / Math.max(1, perCell), CONTAINER_HEAP >> 20);
+        assertWithin("cell.retained.bytes", perCell);
+    }
+
+    /**
+     * Heap retained by what {@code build} returns, per unit, between the two population sizes.
+     */
+    private static long retainedPerUnit(IntFunction<Object> build, int small, int large) {
+        final long empty = usedAfterGc();
+        final var smallResult = build.apply(small);
+        final long smallUsed = usedAfterGc() - empty;
+        final var largeResult = build.apply(large);
+        final long bothUsed = usedAfterGc() - empty;
+        final long largeUsed = bothUsed - smallUsed;
+        Reference.reachabilityFence(smallResult);
+        Reference.reachabilityFence(largeResult);
+        return (largeUsed - smallUsed) / (large - small);
+    }
+
+    private static long usedAfterGc() {
+        final var memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    private void assertWithin(String budget, long actual) throws IOException {
+        final var budgets = new Properties();
+        try (InputStream in = MemoryBudgetTest.class.getResourceAsStream("/memory-budget.properties")) {
+            budgets.load(in);
+        }
+        final long limit = Long.parseLong(budgets.getProperty(budget));
+        Assertions.assertTrue(actual <= limit, "%s is %d B, budget %d B".formatted(budget, actual, limit));
+    }
+
+    private StateFrames encode(GameSnapshot snapshot) {
+        try {
+            return StateFrames.encode(snapshot.itemLocations(), snapshot.playerLocations(), 0, objectMapper);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package example.server;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+class ServerMetricsTest {
+
+    @Test
+    void countsBytesThroughWrappedStreams() throws Exception {
+        final var metrics = new ServerMetrics();
+        final var sink = new ByteArrayOutputStream();
+
+        try (final var out = metrics.counting(sink)) {
+            out.write(new byte[]{1, 2, 3, 4}, 1, 3);
+            out.write(5);
+        }
+        try (final var in = metrics.counting(new ByteArrayInputStream(new byte[10]))) {
+            in.readAllBytes();
+        }
+
+        Assertions.assertEquals(4, sink.size());
+        Assertions.assertEquals(4, metrics.bytesOut.sum());
+        Assertions.assertEquals(10, metrics.bytesIn.sum());
+        final var sb = new StringBuilder();
+        metrics.render(sb);
+        Assertions.assertTrue(sb.toString().contains("game_bytes_sent_total 4\n"));
+        Assertions.assertTrue(sb.toString().contains("# TYPE game_tick_step_seconds histogram\n"));
+    }
+}
@@ -0,0 +1,118 @@
+package example.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import example.domain.Response;
+import example.domain.game.Item;
+import example.domain.game.Location;
+import example.domain.game.Player;
+import example.game.GameSnapshot;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class SpectatorHubTest {
+
+    @Test
+    void slowSubscriberDropsOldestFrames() throws InterruptedException {
+        final var hub = new SpectatorHub(2);
+        final var release = new CountDownLatch(1);
+        final var closed = new CountDownLatch(2);
+        final var received = new ByteArrayOutputStream();
+        final var fast = new ByteArrayOutputStream();
+
+        hub.subscribe(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                received.write(bytes, offset, length);
+            }
+        }, closed::countDown);
+        hub.subscribe(fast, closed::countDown);
+
+        for (int i = 0; i < 10; i++) {
+            hub.publish(("data: " + i + "\n\n").getBytes(StandardCharsets.UTF_8));
+            Thread.sleep(5);
+        }
+        release.countDown();
+        Thread.sleep(100);
+        hub.close();
+
+        Assertions.assertTrue(closed.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(hub.dropped() > 0);
+        Assertions.assertTrue(received.toString(StandardCharsets.UTF_8).endsWith("data: 9\n\n"));
+        Assertions.assertEquals(10, fast.toString(StandardCharsets.UTF_8).split("\n\n").length);
+        Assertions.assertEquals(0, hub.subscribers());
+    }
+
+    @Test
+    void initialFramesSurviveAFullBuffer() throws InterruptedException {
+        final var hub = new SpectatorHub(1);
+        final var release = new CountDownLatch(1);
+        final var closed = new CountDownLatch(1);
+        final var received = new ByteArrayOutputStream();
+
+        hub.subscribe(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                received.write(bytes, offset, length);
+            }
+        }, closed::countDown, bytes("event: cave\n\n"), bytes("data: keyframe\n\n"));
+        for (int i = 0; i < 3; i++) {
+            hub.publish(bytes("data: " + i + "\n\n"));
+        }
+        release.countDown();
+        Thread.sleep(100);
+        hub.close();
+
+        Assertions.assertTrue(closed.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("event: cave\n\ndata: keyframe\n\ndata: 2\n\n", received.toString(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] bytes(String frame) {
+        return frame.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void tickFrameIsCompactJson() throws IOException {
+        final var maks = new Player.HumanPlayer("maks");
+        final var snapshot = new GameSnapshot(3,
+                List.of(new Response.StateLocations.ItemLocation(new Item.Gold(0, 10), new Location(1, 2))),
+                List.of(new Response.StateLocations.PlayerLocation(maks, new Location(2, 2)),
+                        new Response.StateLocations.PlayerLocation(new Player.Dragon(Player.Dragon.Size.Large), new Location(4, 5))),
+                Map.of(maks, 90), Map.of(maks, 20), Map.of(maks, 7));
+
+        final var frame = new String(SpectatorFrames.tick(snapshot), StandardCharsets.UTF_8);
+
+        Assertions.assertTrue(frame.startsWith("data: ") && frame.endsWith("\n\n"));
+        final var json = new ObjectMapper().readTree(frame.substring("data: ".length()).trim());
+        Assertions.assertEquals(3, json.get("tick").asLong());
+        Assertions.assertEquals("[[1,2,\"G\"]]", json.get("items").toString());
+        Assertions.assertEquals("[[2,2,\"M\"],[4,5,\"D\"]]", json.get("players").toString());
+        Assertions.assertEquals(103, json.get("scores").get("maks").asInt());
+    }
+}
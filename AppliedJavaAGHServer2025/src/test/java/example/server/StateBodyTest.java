@@ -0,0 +1,59 @@
+package example.server;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+class StateBodyTest {
+
+    @Test
+    void gzipVariantInflatesToJson() throws Exception {
+        final var json = "{\"tick\":7,\"itemLocations\":[]}".getBytes(StandardCharsets.UTF_8);
+        final var body = StateBody.of("run", 7, json);
+
+        try (final var in = new GZIPInputStream(new ByteArrayInputStream(body.gzip()))) {
+            Assertions.assertArrayEquals(json, in.readAllBytes());
+        }
+        Assertions.assertEquals("\"run-7\"", body.etag(false));
+        Assertions.assertEquals("\"run-7-gzip\"", body.etag(true));
+    }
+
+    @Test
+    void matchesOnlyTagsOfTheSameTick() {
+        final var body = StateBody.of("run", 7, new byte[0]);
+
+        Assertions.assertTrue(body.matches("\"run-7\""));
+        Assertions.assertTrue(body.matches("\"run-6\", W/\"run-7\""));
+        Assertions.assertTrue(body.matches("\"run-7-gzip\""));
+        Assertions.assertTrue(body.matches("W/\"run-7-gzip\""));
+        Assertions.assertTrue(body.matches("*"));
+        Assertions.assertFalse(body.matches("\"run-6\""));
+        Assertions.assertFalse(body.matches("\"other-7\""));
+        Assertions.assertFalse(body.matches("\"run-6-gzip\""));
+        Assertions.assertFalse(body.matches(null));
+    }
+
+    @Test
+    void honoursAcceptEncoding() {
+        Assertions.assertTrue(StateBody.acceptsGzip("gzip, deflate, br"));
+        Assertions.assertTrue(StateBody.acceptsGzip("deflate, GZIP;q=0.5"));
+        Assertions.assertFalse(StateBody.acceptsGzip("gzip;q=0"));
+        Assertions.assertFalse(StateBody.acceptsGzip("br"));
+        Assertions.assertFalse(StateBody.acceptsGzip(null));
+    }
+
+    @Test
+    void tickCacheComputesOncePerTick() {
+        final var cache = new TickCache<String>();
+        final var computed = new AtomicInteger();
+
+        Assertions.assertEquals("1", cache.get(1, tick -> computed.incrementAndGet() + ""));
+        Assertions.assertEquals("1", cache.get(1, tick -> computed.incrementAndGet() + ""));
+        Assertions.assertEquals("2", cache.get(2, tick -> computed.incrementAndGet() + ""));
+        Assertions.assertEquals(2, computed.get());
+    }
+}
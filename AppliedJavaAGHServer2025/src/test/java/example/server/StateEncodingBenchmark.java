@@ -0,0 +1,113 @@
+package example.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import example.benchmark.Payload;
+import example.domain.Response;
+import example.domain.game.Action;
+import example.domain.game.Direction;
+import example.domain.game.Player;
+import example.domain.game.SimpleCave;
+import example.game.Game;
+import example.game.GameSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding one tick for everybody watching: a state line for every human with plain Jackson and with
+ * the shared {@link StateFrames}, the SSE spectator frame and the binary live map delta and keyframe.
+ * Lives next to the package-private codecs it measures; run with the jmh profile like the others.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StateEncodingBenchmark {
+    @Param({"10", "100", "1000"})
+    public int players;
+
+    @Param({"0", "10"})
+    public int radius;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LiveMapFrames liveMap = new LiveMapFrames();
+    private GameSnapshot[] snapshots;
+    private List<Player.HumanPlayer> humans;
+    private int next;
+
+    @Setup
+    public void setup() {
+        final var game = new Game(new SimpleCave(300, 300, new SplittableRandom(42L), SimpleCave.Generation.PACKED));
+        game.generateExit();
+        humans = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            final var human = new Player.HumanPlayer("Player " + i);
+            humans.add(human);
+            game.add(human, game::randomLocation);
+        }
+        game.add(new Player.Dragon(Player.Dragon.Size.Small), game::randomLocation);
+        snapshots = new GameSnapshot[2];
+        final var random = new SplittableRandom(7L);
+        for (int s = 0; s < snapshots.length; s++) {
+            final var actions = new ArrayList<Action>();
+            for (final var human : humans) {
+                actions.add(new Action(human, Direction.values()[random.nextInt(4)]));
+            }
+            game.step(actions);
+            snapshots[s] = game.snapshot();
+        }
+    }
+
+    @Benchmark
+    public int jacksonPerClient(Payload payload) throws Exception {
+        final var snapshot = snapshots[0];
+        int bytes = 0;
+        for (final var human : humans) {
+            bytes += objectMapper.writeValueAsBytes(new Response.StateLocations(snapshot.itemLocations(), snapshot.playerLocations(),
+                    snapshot.playerHealths().getOrDefault(human, 0), snapshot.playerGolds().getOrDefault(human, 0))).length;
+        }
+        payload.add(bytes);
+        return bytes;
+    }
+
+    @Benchmark
+    public int sharedFrames(Payload payload) throws Exception {
+        final var snapshot = snapshots[0];
+        final var frames = StateFrames.encode(snapshot.itemLocations(), snapshot.playerLocations(), radius, objectMapper);
+        int chars = 0;
+        for (final var human : humans) {
+            chars += frames.frame(human, snapshot.playerHealths().getOrDefault(human, 0),
+                    snapshot.playerGolds().getOrDefault(human, 0)).length();
+        }
+        payload.add(chars);
+        return chars;
+    }
+
+    @Benchmark
+    public byte[] spectatorTick(Payload payload) {
+        final var frame = SpectatorFrames.tick(snapshots[0]);
+        payload.add(frame.length);
+        return frame;
+    }
+
+    @Benchmark
+    public byte[] liveMapDelta(Payload payload) {
+        liveMap.update(snapshots[next++ & 1]);
+        final var delta = liveMap.delta();
+        payload.add(delta.length);
+        return delta;
+    }
+
+    @Benchmark
+    public byte[] liveMapKeyframe(Payload payload) {
+        liveMap.update(snapshots[next++ & 1]);
+        final var keyframe = liveMap.keyframe();
+        payload.add(keyframe.length);
+        return keyframe;
+    }
+}
@@ -0,0 +1,51 @@
+package example.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import example.domain.Response;
+import example.domain.game.Item;
+import example.domain.game.Location;
+import example.domain.game.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class StateFramesTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Player.HumanPlayer alice = new Player.HumanPlayer("Alice");
+    private final Player.HumanPlayer bob = new Player.HumanPlayer("Bob");
+    private final Player.Dragon dragon = new Player.Dragon(Player.Dragon.Size.Small);
+
+    private final List<Response.StateLocations.ItemLocation> items = List.of(
+            new Response.StateLocations.ItemLocation(new Item.Gold(0, 10), new Location(2, 3)),
+            new Response.StateLocations.ItemLocation(new Item.Health(1, 20), new Location(40, 40)),
+            new Response.StateLocations.ItemLocation(new Item.Exit(0), new Location(6, 6)));
+    private final List<Response.StateLocations.PlayerLocation> players = List.of(
+            new Response.StateLocations.PlayerLocation(alice, new Location(1, 1)),
+            new Response.StateLocations.PlayerLocation(bob, new Location(41, 38)),
+            new Response.StateLocations.PlayerLocation(dragon, new Location(5, 4)));
+
+    @Test
+    void sharedFrameMatchesJacksonEncoding() throws Exception {
+        final var frames = StateFrames.encode(items, players, 0, objectMapper);
+
+        final var expected = objectMapper.readTree(objectMapper.writeValueAsString(
+                new Response.StateLocations(items, players, 70, 5)));
+        Assertions.assertEquals(expected, objectMapper.readTree(frames.frame(alice, 70, 5)));
+    }
+
+    @Test
+    void interestRadiusKeepsOnlyNearbyEntities() throws Exception {
+        final var frames = StateFrames.encode(items, players, 5, objectMapper);
+
+        final var response = (Response.StateLocations) objectMapper.readValue(frames.frame(alice, 100, 0), Response.class);
+
+        Assertions.assertEquals(List.of(items.get(0), items.get(2)), List.copyOf(response.itemLocations()));
+        Assertions.assertEquals(List.of(players.get(0), players.get(2)), List.copyOf(response.playerLocations()));
+
+        final var far = (Response.StateLocations) objectMapper.readValue(frames.frame(bob, 100, 0), Response.class);
+        Assertions.assertEquals(List.of(items.get(1)), List.copyOf(far.itemLocations()));
+        Assertions.assertEquals(List.of(players.get(1)), List.copyOf(far.playerLocations()));
+    }
+}
@@ -0,0 +1,62 @@
+package example.server;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TickPublisherTest {
+
+    @Test
+    void returnsImmediatelyWhenBehind() throws InterruptedException {
+        final var publisher = new TickPublisher<>("initial");
+        publisher.publish("first");
+        publisher.publish("second");
+
+        final var tick = publisher.await(0);
+
+        Assertions.assertEquals(2, tick.sequence());
+        Assertions.assertEquals("second", tick.value());
+        Assertions.assertNull(publisher.await(2, TimeUnit.MILLISECONDS.toNanos(10)));
+    }
+
+    @Test
+    void everyWaiterReachesLastTick() throws InterruptedException {
+        final var publisher = new TickPublisher<>(0);
+        final int ticks = 2_000;
+        final var finished = new AtomicInteger();
+        final var threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.startVirtualThread(() -> {
+                try {
+                    long seen = 0;
+                    while (seen < ticks) {
+                        final var tick = publisher.await(seen, TimeUnit.SECONDS.toNanos(10));
+                        Assertions.assertNotNull(tick, "missed wakeup");
+                        Assertions.assertTrue(tick.sequence() > seen);
+                        Assertions.assertEquals((int) tick.sequence(), tick.value());
+                        seen = tick.sequence();
+                    }
+                    finished.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        for (int i = 1; i <= ticks; i++) {
+            publisher.publish(i);
+            if (i % 100 == 0) {
+                Thread.sleep(1);
+            }
+        }
+        for (final var thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(20));
+        }
+
+        Assertions.assertEquals(8, finished.get());
+        Assertions.assertEquals(0, publisher.waiting());
+    }
+}
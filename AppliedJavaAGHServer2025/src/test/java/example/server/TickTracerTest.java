@@ -0,0 +1,81 @@
+package example.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class TickTracerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void recordsOnlyWhileEnabled() throws Exception {
+        final var tracer = new TickTracer(8);
+        tracer.span("step", null, 0, 10);
+        Assertions.assertEquals(0, events(tracer).size());
+
+        tracer.start(TimeUnit.SECONDS.toNanos(30));
+        tracer.span("step", null, 1_000, 3_500);
+        tracer.span("write", "Alice", 4_000, 5_000);
+        tracer.stop();
+        tracer.span("step", null, 6_000, 7_000);
+
+        final var events = events(tracer);
+        Assertions.assertEquals(2, events.size());
+        Assertions.assertEquals("step", events.get(0).get("name").asText());
+        Assertions.assertEquals("X", events.get(0).get("ph").asText());
+        Assertions.assertEquals(2.5, events.get(0).get("dur").asDouble());
+        Assertions.assertEquals("Alice", events.get(1).get("args").get("player").asText());
+    }
+
+    @Test
+    void keepsTheNewestSpansWhenFull() throws Exception {
+        final var tracer = new TickTracer(4);
+        tracer.start(TimeUnit.SECONDS.toNanos(30));
+        for (int i = 0; i < 10; i++) {
+            tracer.span("tick" + i, null, i, i + 1);
+        }
+
+        final var names = new ArrayList<String>();
+        events(tracer).forEach(event -> names.add(event.get("name").asText()));
+        Assertions.assertEquals(List.of("tick6", "tick7", "tick8", "tick9"), names);
+    }
+
+    @Test
+    void stopsAfterTheCaptureWindow() {
+        final var tracer = new TickTracer(4);
+        tracer.start(0);
+        Assertions.assertFalse(tracer.enabled());
+    }
+
+    @Test
+    void concurrentWritersLeaveAValidTrace() throws Exception {
+        final var tracer = new TickTracer(1 << 10);
+        tracer.start(TimeUnit.SECONDS.toNanos(30));
+        final var threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.startVirtualThread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    final long start = System.nanoTime();
+                    tracer.span("write", "Bob", start, System.nanoTime());
+                }
+            }));
+        }
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertTrue(events(tracer).size() <= 1 << 10);
+        }
+        for (final var thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(1 << 10, events(tracer).size());
+    }
+
+    private JsonNode events(TickTracer tracer) throws Exception {
+        return objectMapper.readTree(tracer.export()).get("traceEvents");
+    }
+}